@@ -1,43 +1,69 @@
 package net.apercova.crypto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.InvalidParameterSpecException;
-import java.security.spec.KeySpec;
+import java.util.concurrent.CompletableFuture;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
+
+import net.apercova.crypto.io.CipherHeader;
+import net.apercova.crypto.io.DecryptingChannel;
+import net.apercova.crypto.io.DecryptingInputStream;
+import net.apercova.crypto.io.EncryptingChannel;
+import net.apercova.crypto.io.EncryptingOutputStream;
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
 
 /**
  * Implementación de cifrado AES/CBC/PKCS5Padding con key PBKDF2WithHmacSHA1
+ * o el {@link KeyDerivationProfile} configurado.
  * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
  * @version 1.0 2017.12
+ * @version 1.1 2026.10 Agregando cache de llaves derivadas {@link SecretKeyCache}
+ * @version 1.2 2026.10 Agregando cifrado en flujo con encabezado {@link CipherHeader}
+ * @version 1.3 2026.10 Reutilizando {@link javax.crypto.Cipher} por hilo
+ * @version 1.4 2026.10 Agregando cifrado sobre {@link ByteBuffer}
+ * @version 1.5 2026.10 Agregando perfiles de derivación {@link KeyDerivationProfile} y derivación anticipada
+ * @version 1.6 2026.10 Agregando mediciones {@link CryptoMetrics}
+ * @version 1.7 2026.10 Agregando perfiles aceptados al descifrar
  *
  */
-public class AESCBCPKCS5Cipher extends BufferedPBEncryptable{
+public class AESCBCPKCS5Cipher extends BufferedPBEncryptable implements BufferEncryptable{
 	
 	private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
-	private static final String KEY_TRANSFORMATION = "PBKDF2WithHmacSHA1";
-	private static final String KEY_ALGORITHM = "AES";
-	private static final int KEY_LENGTH = 128;
-	private static final int ROUNDS = 65536;
+	private static final int BLOCK_SIZE = 16;
+	/**
+	 * {@link javax.crypto.Cipher} reutilizable por hilo para operaciones completas
+	 * (init + doFinal). No debe utilizarse para operaciones en flujo.
+	 */
+	private static final ThreadLocal<javax.crypto.Cipher> CIPHERS = new ThreadLocal<javax.crypto.Cipher>();
 	
 	/**
 	 * Sha1("password") Utilizar password distinto.
 	 */
-	private static final String DEF_KEY = "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8";
+	static final String DEF_KEY = "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8";
 	
 	private char[] password;
 	private byte[] salt;
+	private KeyDerivationProfile profile;
+	private KeyDerivationProfile[] acceptedProfiles = new KeyDerivationProfile[0];
+	private SecretKeyCache keyCache = SecretKeyCache.getDefault();
 	
 	public AESCBCPKCS5Cipher() {
 		this(null,null);
@@ -48,55 +74,133 @@ public class AESCBCPKCS5Cipher extends BufferedPBEncryptable{
 	}
 	
 	public AESCBCPKCS5Cipher(char[] password, byte[] salt) {
+		this(password, salt, null);
+	}
+	
+	/**
+	 * @param password Password
+	 * @param salt Salt
+	 * @param profile Perfil de derivación de llave. {@code null} para {@link KeyDerivationProfile#DEFAULT}
+	 */
+	public AESCBCPKCS5Cipher(char[] password, byte[] salt, KeyDerivationProfile profile) {
 		this.password = (password == null)?DEF_KEY.toCharArray():password;
 		this.salt = (salt == null)?DEF_KEY.getBytes():salt;
+		this.profile = (profile == null)?KeyDerivationProfile.DEFAULT:profile;
 	}
 				
 	protected static SecretKey createSecretKey(char[] password, byte[] salt) throws NoSuchAlgorithmException, InvalidKeySpecException {
-		SecretKeyFactory factory = SecretKeyFactory.getInstance(KEY_TRANSFORMATION);
-		KeySpec spec = new PBEKeySpec(password, salt, ROUNDS, KEY_LENGTH);
-		SecretKey tmp = factory.generateSecret(spec);
-		return new SecretKeySpec(tmp.getEncoded(), KEY_ALGORITHM);
+		try {
+			return KeyDerivationProfile.LEGACY.derive(password, salt);
+		} catch (NoSuchAlgorithmException e) {
+			throw e;
+		} catch (InvalidKeySpecException e) {
+			throw e;
+		} catch (GeneralSecurityException e) {
+			throw new InvalidKeySpecException(e);
+		}
     }
 	
+	/**
+	 * Obtiene la llave desde cache, derivándola sólo si no se encuentra.
+	 * @param password Password
+	 * @param salt Salt
+	 * @param cache Cache de llaves. {@code null} para derivar siempre.
+	 * @return Llave derivada
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	protected static SecretKey createSecretKey(char[] password, byte[] salt, SecretKeyCache cache) throws GeneralSecurityException {
+		return KeyDerivationProfile.LEGACY.derive(password, salt, cache);
+	}
+	
+	/**
+	 * Llave de esta instancia para el perfil indicado.
+	 * @param profile Perfil de derivación
+	 * @return Llave derivada
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	protected SecretKey getSecretKey(KeyDerivationProfile profile) throws GeneralSecurityException {
+		return profile.derive(password, salt, keyCache);
+	}
+	
+	/**
+	 * Deriva por anticipado la llave de esta instancia en el executor dedicado de
+	 * {@link SecretKeyCache}, para que las operaciones posteriores no bloqueen en la derivación.
+	 * @return Llave derivada al completarse.
+	 * @throws IllegalStateException Si no existe cache de llaves donde almacenar la llave.
+	 */
+	public CompletableFuture<SecretKey> preDerive() {
+		if(keyCache == null) {
+			throw new IllegalStateException("keyCache");
+		}
+		return keyCache.getAsync(profile, password, salt);
+	}
+	
 	protected static byte[][] encrypt(byte[] bytes, char[] password, byte[] salt) throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException, InvalidKeyException, InvalidParameterSpecException, IllegalBlockSizeException, BadPaddingException{
-		SecretKey key = createSecretKey(password, salt);
-		javax.crypto.Cipher cipher = javax.crypto.Cipher.getInstance(TRANSFORMATION);
+		return encrypt(bytes, createSecretKey(password, salt));
+	}
+	
+	/**
+	 * Devuelve el {@link javax.crypto.Cipher} del hilo actual, creándolo en su primer uso.
+	 * @return {@link javax.crypto.Cipher} sin inicializar.
+	 */
+	protected static javax.crypto.Cipher threadCipher() throws NoSuchAlgorithmException, NoSuchPaddingException {
+		javax.crypto.Cipher cipher = CIPHERS.get();
+		if(cipher == null) {
+			cipher = javax.crypto.Cipher.getInstance(TRANSFORMATION);
+			CIPHERS.set(cipher);
+		}
+		return cipher;
+	}
+	
+	protected static byte[][] encrypt(byte[] bytes, SecretKey key) throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, InvalidParameterSpecException, IllegalBlockSizeException, BadPaddingException{
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		javax.crypto.Cipher cipher = threadCipher();
 		cipher.init(javax.crypto.Cipher.ENCRYPT_MODE, key);
 		AlgorithmParameters params = cipher.getParameters();
 		final byte[] iv = params.getParameterSpec(IvParameterSpec.class).getIV();
+		t = metrics.record(Operation.ENCRYPT, Phase.CIPHER_INIT, t, 0);
 		final byte[] encrypted = cipher.doFinal(bytes);
+		metrics.record(Operation.ENCRYPT, Phase.TRANSFORM, t, bytes.length);
 		return new byte[][] {encrypted, iv};
 	}
 	
 	protected static byte[] decrypt(byte[] bytes, char[] password, byte[] salt, byte[] iv) throws NoSuchAlgorithmException, InvalidKeySpecException, InvalidKeyException, InvalidAlgorithmParameterException, NoSuchPaddingException, IllegalBlockSizeException, BadPaddingException {
-		SecretKey key = createSecretKey(password, salt);
-		javax.crypto.Cipher cipher = javax.crypto.Cipher.getInstance(TRANSFORMATION);
+		return decrypt(bytes, createSecretKey(password, salt), iv);
+	}
+	
+	protected static byte[] decrypt(byte[] bytes, SecretKey key, byte[] iv) throws NoSuchAlgorithmException, InvalidKeyException, InvalidAlgorithmParameterException, NoSuchPaddingException, IllegalBlockSizeException, BadPaddingException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		javax.crypto.Cipher cipher = threadCipher();
 		cipher.init(javax.crypto.Cipher.DECRYPT_MODE, key, new IvParameterSpec(iv));
-		return cipher.doFinal(bytes);
+		t = metrics.record(Operation.DECRYPT, Phase.CIPHER_INIT, t, 0);
+		final byte[] decrypted = cipher.doFinal(bytes);
+		metrics.record(Operation.DECRYPT, Phase.TRANSFORM, t, bytes.length);
+		return decrypted;
 	}
 
 	@Override
 	public byte[] encrypt() throws Exception {
-		if(content == null) {
+		if(getContent() == null) {
 			throw new IllegalStateException("content");
 		}
-		return encrypt(content);
+		return encrypt(getContent());
 	}
 
 	@Override
 	public byte[] decrypt() throws Exception {
-		if(content == null) {
+		if(getContent() == null) {
 			throw new IllegalStateException("content");
 		}
-		return decrypt(content);
+		return decrypt(getContent());
 	}
 
 	public byte[] encrypt(byte[] bytes) throws Exception {
 		if(bytes.length <1) {
 			return bytes;
 		}
-		byte[][] res = AESCBCPKCS5Cipher.encrypt(bytes, password, salt);
+		byte[][] res = AESCBCPKCS5Cipher.encrypt(bytes, getSecretKey(profile));
 		iv = res[1];
 		return res[0];
 	}
@@ -108,7 +212,239 @@ public class AESCBCPKCS5Cipher extends BufferedPBEncryptable{
 		if(iv == null) {
 			throw new NullPointerException("iv");
 		}
-		return AESCBCPKCS5Cipher.decrypt(bytes, password, salt, iv);
+		return AESCBCPKCS5Cipher.decrypt(bytes, getSecretKey(profile), iv);
+	}
+	
+	/**
+	 * Cifrado sobre {@link ByteBuffer} mediante {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+	 * El vector de inicialización generado queda disponible en {@link #getIv()}.
+	 * @see BufferEncryptable#encrypt(ByteBuffer, ByteBuffer)
+	 */
+	public int encrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		if(!input.hasRemaining()) {
+			return 0;
+		}
+		final SecretKey key = getSecretKey(profile);
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		javax.crypto.Cipher cipher = threadCipher();
+		cipher.init(javax.crypto.Cipher.ENCRYPT_MODE, key);
+		final byte[] nextIv = cipher.getIV();
+		t = metrics.record(Operation.ENCRYPT, Phase.CIPHER_INIT, t, 0);
+		final int len = input.remaining();
+		final int n = cipher.doFinal(input, output);
+		metrics.record(Operation.ENCRYPT, Phase.TRANSFORM, t, len);
+		iv = nextIv;
+		return n;
+	}
+	
+	/**
+	 * Descifrado sobre {@link ByteBuffer} mediante {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}
+	 * con el vector de inicialización de {@link #getIv()}.
+	 * @see BufferEncryptable#decrypt(ByteBuffer, ByteBuffer)
+	 */
+	public int decrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		if(!input.hasRemaining()) {
+			return 0;
+		}
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		final SecretKey key = getSecretKey(profile);
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		javax.crypto.Cipher cipher = threadCipher();
+		cipher.init(javax.crypto.Cipher.DECRYPT_MODE, key, new IvParameterSpec(iv));
+		t = metrics.record(Operation.DECRYPT, Phase.CIPHER_INIT, t, 0);
+		final int len = input.remaining();
+		final int n = cipher.doFinal(input, output);
+		metrics.record(Operation.DECRYPT, Phase.TRANSFORM, t, len);
+		return n;
+	}
+	
+	public int encryptedSize(int length) {
+		return (length < 1)?0:(length / BLOCK_SIZE + 1) * BLOCK_SIZE;
+	}
+	
+	public int decryptedSize(int length) {
+		return length;
+	}
+	
+	/**
+	 * Inicializa un {@link javax.crypto.Cipher} con la llave de esta instancia.
+	 * @param mode {@link javax.crypto.Cipher#ENCRYPT_MODE} o {@link javax.crypto.Cipher#DECRYPT_MODE}
+	 * @param profile Perfil de derivación de llave.
+	 * @param iv Vector de inicialización. {@code null} para generar uno al cifrar.
+	 * @return {@link javax.crypto.Cipher} inicializado.
+	 * @throws GeneralSecurityException Si no es posible inicializar el {@link javax.crypto.Cipher}
+	 */
+	protected javax.crypto.Cipher initCipher(int mode, KeyDerivationProfile profile, byte[] iv) throws GeneralSecurityException {
+		SecretKey key = getSecretKey(profile);
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		final long t = metrics.start();
+		javax.crypto.Cipher cipher = javax.crypto.Cipher.getInstance(TRANSFORMATION);
+		if(iv == null) {
+			cipher.init(mode, key);
+		} else {
+			cipher.init(mode, key, new IvParameterSpec(iv));
+		}
+		metrics.record((mode == javax.crypto.Cipher.ENCRYPT_MODE)?Operation.ENCRYPT:Operation.DECRYPT, Phase.CIPHER_INIT, t, 0);
+		return cipher;
+	}
+	
+	/**
+	 * Cifrado en flujo. Escribe un {@link CipherHeader} con el vector de inicialización
+	 * y devuelve un flujo que cifra el contenido escrito en memoria constante.
+	 * El contenido se completa al cerrar el flujo devuelto.
+	 * @param out Flujo destino
+	 * @return Flujo de cifrado
+	 * @throws Exception Si no es posible inicializar el cifrado.
+	 */
+	public OutputStream encryptingStream(OutputStream out) throws Exception {
+		javax.crypto.Cipher cipher = initCipher(javax.crypto.Cipher.ENCRYPT_MODE, profile, null);
+		iv = cipher.getIV();
+		new CipherHeader(profile, iv).writeTo(out);
+		return new EncryptingOutputStream(out, cipher);
+	}
+	
+	/**
+	 * Descifrado en flujo. Lee el {@link CipherHeader} del flujo origen
+	 * y devuelve un flujo que descifra el contenido restante en memoria constante.
+	 * @param in Flujo origen
+	 * @return Flujo de descifrado
+	 * @throws Exception Si el encabezado es inválido o no es posible inicializar el descifrado.
+	 */
+	public InputStream decryptingStream(InputStream in) throws Exception {
+		CipherHeader header = CipherHeader.readFrom(in);
+		KeyDerivationProfile.checkAccepted(header.getProfile(), profile, acceptedProfiles);
+		iv = header.getIv();
+		return new DecryptingInputStream(in, initCipher(javax.crypto.Cipher.DECRYPT_MODE, header.getProfile(), iv));
+	}
+	
+	/**
+	 * Cifrado en canal. Escribe un {@link CipherHeader} con el vector de inicialización
+	 * y devuelve un canal que cifra el contenido escrito.
+	 * El contenido se completa al cerrar el canal devuelto.
+	 * @param channel Canal destino
+	 * @return Canal de cifrado
+	 * @throws Exception Si no es posible inicializar el cifrado.
+	 */
+	public WritableByteChannel encryptingChannel(WritableByteChannel channel) throws Exception {
+		javax.crypto.Cipher cipher = initCipher(javax.crypto.Cipher.ENCRYPT_MODE, profile, null);
+		iv = cipher.getIV();
+		new CipherHeader(profile, iv).writeTo(channel);
+		return new EncryptingChannel(channel, cipher);
+	}
+	
+	/**
+	 * Descifrado en canal. Lee el {@link CipherHeader} del canal origen
+	 * y devuelve un canal que descifra el contenido restante.
+	 * @param channel Canal origen
+	 * @return Canal de descifrado
+	 * @throws Exception Si el encabezado es inválido o no es posible inicializar el descifrado.
+	 */
+	public ReadableByteChannel decryptingChannel(ReadableByteChannel channel) throws Exception {
+		CipherHeader header = CipherHeader.readFrom(channel);
+		KeyDerivationProfile.checkAccepted(header.getProfile(), profile, acceptedProfiles);
+		iv = header.getIv();
+		return new DecryptingChannel(channel, initCipher(javax.crypto.Cipher.DECRYPT_MODE, header.getProfile(), iv));
+	}
+	
+	/**
+	 * Cifra el contenido completo de un flujo en memoria constante.
+	 * No cierra los flujos origen ni destino.
+	 * @param in Flujo origen
+	 * @param out Flujo destino
+	 * @throws Exception Si no es posible cifrar el contenido.
+	 */
+	public void encrypt(InputStream in, OutputStream out) throws Exception {
+		OutputStream enc = encryptingStream(new NonClosingOutputStream(out));
+		try {
+			transfer(in, enc);
+		} finally {
+			enc.close();
+		}
+	}
+	
+	/**
+	 * Descifra el contenido completo de un flujo en memoria constante.
+	 * No cierra los flujos origen ni destino.
+	 * @param in Flujo origen
+	 * @param out Flujo destino
+	 * @throws Exception Si no es posible descifrar el contenido.
+	 */
+	public void decrypt(InputStream in, OutputStream out) throws Exception {
+		transfer(decryptingStream(in), out);
+		out.flush();
+	}
+	
+	private static void transfer(InputStream in, OutputStream out) throws IOException {
+		byte[] buff = new byte[EncryptingOutputStream.DEFAULT_BUFFER_SIZE];
+		int n;
+		while((n = in.read(buff)) != -1) {
+			out.write(buff, 0, n);
+		}
+	}
+	
+	/**
+	 * Evita cerrar el flujo destino al completar el cifrado.
+	 */
+	private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+		private NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			out.flush();
+		}
+	}
+	
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+	
+	/**
+	 * Define perfil de derivación de llave para nuevas operaciones.
+	 * El descifrado en flujo utiliza el perfil registrado en el encabezado, si es aceptado:
+	 * este perfil, los predefinidos o los de {@link #setAcceptedProfiles(KeyDerivationProfile...)}.
+	 * @param profile Perfil de derivación de llave.
+	 */
+	public void setProfile(KeyDerivationProfile profile) {
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		this.profile = profile;
+	}
+	
+	public KeyDerivationProfile[] getAcceptedProfiles() {
+		return acceptedProfiles.clone();
+	}
+	
+	/**
+	 * Define perfiles adicionales aceptados al descifrar, por ejemplo perfiles
+	 * utilizados antes de {@link #setProfile(KeyDerivationProfile)}.
+	 * @param profiles Perfiles aceptados
+	 */
+	public void setAcceptedProfiles(KeyDerivationProfile... profiles) {
+		this.acceptedProfiles = KeyDerivationProfile.copyOf(profiles);
+	}
+	
+	public SecretKeyCache getKeyCache() {
+		return keyCache;
+	}
+	
+	/**
+	 * Define cache de llaves derivadas.
+	 * @param keyCache Cache de llaves. {@code null} para derivar la llave en cada operación.
+	 */
+	public void setKeyCache(SecretKeyCache keyCache) {
+		this.keyCache = keyCache;
 	}
 
 }
@@ -0,0 +1,281 @@
+package net.apercova.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+import net.apercova.crypto.io.CipherHeader;
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * Implementación AES/CBC/PKCS5Padding sin estado y segura para hilos.
+ * La llave se deriva una sola vez al construir la instancia y cada hilo
+ * reutiliza su propio {@link javax.crypto.Cipher}, por lo que una sola instancia
+ * puede compartirse entre hilos concurrentes sin contención.
+ * <p>
+ * {@link #encrypt(byte[])} y {@link #decrypt(byte[])} utilizan el formato
+ * empaquetado de {@link CipherText#toFrame()}, que incluye el vector de inicialización.
+ * </p>
+ * <p>
+ * Para grandes volúmenes de registros pequeños, {@link #sealAll(RecordBatch)} y
+ * {@link #openAll(RecordBatch)} procesan un lote completo sobre un solo arreglo
+ * de salida prealocado, reutilizando la llave y el {@link Cipher} del hilo.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando perfiles de derivación {@link KeyDerivationProfile}
+ * @version 1.2 2026.10 Agregando mediciones {@link CryptoMetrics}
+ * @version 1.3 2026.10 Agregando perfiles aceptados al descifrar
+ *
+ */
+public class AESCBCPKCS5Encryptor implements BufferEncryptable {
+
+	private static final int BLOCK_SIZE = 16;
+	private static final int HEADER_LENGTH = new CipherHeader(new byte[BLOCK_SIZE]).length();
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final char[] password;
+	private final byte[] salt;
+	private final KeyDerivationProfile profile;
+	private final KeyDerivationProfile[] acceptedProfiles;
+	private final SecretKeyCache keyCache;
+	private final SecretKey key;
+
+	public AESCBCPKCS5Encryptor(char[] password, byte[] salt) throws GeneralSecurityException {
+		this(password, salt, SecretKeyCache.getDefault());
+	}
+
+	public AESCBCPKCS5Encryptor(char[] password, byte[] salt, SecretKeyCache keyCache) throws GeneralSecurityException {
+		this(password, salt, KeyDerivationProfile.DEFAULT, keyCache);
+	}
+
+	/**
+	 * @param password Password
+	 * @param salt Salt
+	 * @param profile Perfil de derivación de llave para cifrar.
+	 * @param keyCache Cache de llaves. {@code null} para derivar sin cache; en tal caso
+	 * descifrar información de otros perfiles deriva la llave en cada operación.
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	public AESCBCPKCS5Encryptor(char[] password, byte[] salt, KeyDerivationProfile profile, SecretKeyCache keyCache) throws GeneralSecurityException {
+		this(password, salt, profile, keyCache, new KeyDerivationProfile[0]);
+	}
+
+	/**
+	 * @param password Password
+	 * @param salt Salt
+	 * @param profile Perfil de derivación de llave para cifrar.
+	 * @param keyCache Cache de llaves. {@code null} para derivar sin cache.
+	 * @param acceptedProfiles Perfiles aceptados al descifrar, además de {@code profile}
+	 * y los predefinidos de {@link KeyDerivationProfile}.
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	public AESCBCPKCS5Encryptor(char[] password, byte[] salt, KeyDerivationProfile profile, SecretKeyCache keyCache, KeyDerivationProfile... acceptedProfiles) throws GeneralSecurityException {
+		if(password == null) {
+			throw new NullPointerException("password");
+		}
+		if(salt == null) {
+			throw new NullPointerException("salt");
+		}
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		this.password = password.clone();
+		this.salt = salt.clone();
+		this.profile = profile;
+		this.acceptedProfiles = KeyDerivationProfile.copyOf(acceptedProfiles);
+		this.keyCache = keyCache;
+		this.key = profile.derive(password, salt, keyCache);
+	}
+
+	/**
+	 * Llave para el perfil indicado; la del perfil de esta instancia se deriva una sola vez.
+	 * @throws GeneralSecurityException Si el perfil no es aceptado.
+	 */
+	private SecretKey key(KeyDerivationProfile profile) throws GeneralSecurityException {
+		if(this.profile.equals(profile)) {
+			return key;
+		}
+		if(!KeyDerivationProfile.isAccepted(profile, this.profile, acceptedProfiles)) {
+			throw new GeneralSecurityException("Key derivation profile not accepted: " + profile);
+		}
+		return profile.derive(password, salt, keyCache);
+	}
+
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+
+	public KeyDerivationProfile[] getAcceptedProfiles() {
+		return acceptedProfiles.clone();
+	}
+
+	/**
+	 * Cifra información generando un nuevo vector de inicialización.
+	 * @param bytes Información en claro
+	 * @return Información cifrada junto con su vector de inicialización.
+	 * @throws GeneralSecurityException Si no es posible cifrar.
+	 */
+	public CipherText seal(byte[] bytes) throws GeneralSecurityException {
+		byte[][] res = AESCBCPKCS5Cipher.encrypt(bytes, key);
+		return CipherText.wrap(res[0], res[1], profile);
+	}
+
+	/**
+	 * Descifra información.
+	 * @param cipherText Información cifrada junto con su vector de inicialización.
+	 * @return Información en claro
+	 * @throws GeneralSecurityException Si no es posible descifrar o su perfil de derivación no es aceptado.
+	 */
+	public byte[] open(CipherText cipherText) throws GeneralSecurityException {
+		return AESCBCPKCS5Cipher.decrypt(cipherText.data(), key(cipherText.getProfile()), cipherText.iv());
+	}
+
+	/**
+	 * Descifra información.
+	 * @param bytes Información cifrada
+	 * @param iv Vector de inicialización
+	 * @return Información en claro
+	 * @throws GeneralSecurityException Si no es posible descifrar.
+	 */
+	public byte[] open(byte[] bytes, byte[] iv) throws GeneralSecurityException {
+		return AESCBCPKCS5Cipher.decrypt(bytes, key, iv);
+	}
+
+	/**
+	 * Cifra un lote de registros.
+	 * @see #sealAll(RecordBatch)
+	 */
+	public RecordBatch sealAll(byte[]... records) throws GeneralSecurityException {
+		return sealAll(RecordBatch.of(records));
+	}
+
+	/**
+	 * Cifra un lote de registros sobre un solo arreglo prealocado.
+	 * Cada registro cifrado se compone del vector de inicialización seguido de la información cifrada.
+	 * @param records Lote de registros en claro
+	 * @return Lote de registros cifrados con el mismo orden.
+	 * @throws GeneralSecurityException Si no es posible cifrar.
+	 */
+	public RecordBatch sealAll(RecordBatch records) throws GeneralSecurityException {
+		final int n = records.size();
+		final int[] offsets = new int[n + 1];
+		for(int i = 0; i < n; i++) {
+			offsets[i + 1] = offsets[i] + BLOCK_SIZE + (records.length(i) / BLOCK_SIZE + 1) * BLOCK_SIZE;
+		}
+		final byte[] out = new byte[offsets[n]];
+		final byte[] ivs = new byte[n * BLOCK_SIZE];
+		RANDOM.nextBytes(ivs);
+		final byte[] in = records.buffer();
+		final Cipher cipher = AESCBCPKCS5Cipher.threadCipher();
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		for(int i = 0; i < n; i++) {
+			long t = metrics.start();
+			System.arraycopy(ivs, i * BLOCK_SIZE, out, offsets[i], BLOCK_SIZE);
+			cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(ivs, i * BLOCK_SIZE, BLOCK_SIZE));
+			t = metrics.record(Operation.ENCRYPT, Phase.CIPHER_INIT, t, 0);
+			cipher.doFinal(in, records.offset(i), records.length(i), out, offsets[i] + BLOCK_SIZE);
+			metrics.record(Operation.ENCRYPT, Phase.TRANSFORM, t, records.length(i));
+		}
+		return new RecordBatch(out, offsets);
+	}
+
+	/**
+	 * Descifra un lote de registros generado por {@link #sealAll(RecordBatch)}
+	 * sobre un solo arreglo prealocado.
+	 * @param records Lote de registros cifrados
+	 * @return Lote de registros en claro con el mismo orden.
+	 * @throws GeneralSecurityException Si no es posible descifrar.
+	 */
+	public RecordBatch openAll(RecordBatch records) throws GeneralSecurityException {
+		final int n = records.size();
+		final byte[] in = records.buffer();
+		final byte[] out = new byte[Math.max(0, records.offset(n) - records.offset(0) - n * BLOCK_SIZE)];
+		final int[] offsets = new int[n + 1];
+		final Cipher cipher = AESCBCPKCS5Cipher.threadCipher();
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		for(int i = 0; i < n; i++) {
+			final int len = records.length(i) - BLOCK_SIZE;
+			if(len < BLOCK_SIZE) {
+				throw new javax.crypto.IllegalBlockSizeException("record: " + i);
+			}
+			long t = metrics.start();
+			cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(in, records.offset(i), BLOCK_SIZE));
+			t = metrics.record(Operation.DECRYPT, Phase.CIPHER_INIT, t, 0);
+			offsets[i + 1] = offsets[i] + cipher.doFinal(in, records.offset(i) + BLOCK_SIZE, len, out, offsets[i]);
+			metrics.record(Operation.DECRYPT, Phase.TRANSFORM, t, len);
+		}
+		return new RecordBatch(out, offsets);
+	}
+
+	/**
+	 * Cifra información en formato empaquetado.
+	 * @see CipherText#toFrame()
+	 */
+	public byte[] encrypt(byte[] bytes) throws Exception {
+		return seal(bytes).toFrame();
+	}
+
+	/**
+	 * Descifra información en formato empaquetado.
+	 * @see CipherText#fromFrame(byte[])
+	 */
+	public byte[] decrypt(byte[] bytes) throws Exception {
+		final CipherText cipherText = CipherText.fromFrame(bytes);
+		KeyDerivationProfile.checkAccepted(cipherText.getProfile(), profile, acceptedProfiles);
+		return open(cipherText);
+	}
+
+	/**
+	 * Cifra información en formato empaquetado sobre {@link ByteBuffer}.
+	 * @see CipherText#toFrame()
+	 */
+	public int encrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		final Cipher cipher = AESCBCPKCS5Cipher.threadCipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key);
+		t = metrics.record(Operation.ENCRYPT, Phase.CIPHER_INIT, t, 0);
+		final int len = input.remaining();
+		final int required = HEADER_LENGTH + cipher.getOutputSize(len);
+		if(output.remaining() < required) {
+			throw new javax.crypto.ShortBufferException("Need " + required + " bytes in output");
+		}
+		new CipherHeader(profile, cipher.getIV()).writeTo(output);
+		final int n = HEADER_LENGTH + cipher.doFinal(input, output);
+		metrics.record(Operation.ENCRYPT, Phase.TRANSFORM, t, len);
+		return n;
+	}
+
+	/**
+	 * Descifra información en formato empaquetado sobre {@link ByteBuffer}.
+	 * @see CipherText#fromFrame(byte[])
+	 */
+	public int decrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		final CipherHeader header = CipherHeader.readFrom(input);
+		final SecretKey key = key(KeyDerivationProfile.checkAccepted(header.getProfile(), profile, acceptedProfiles));
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		long t = metrics.start();
+		final Cipher cipher = AESCBCPKCS5Cipher.threadCipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(header.getIv()));
+		t = metrics.record(Operation.DECRYPT, Phase.CIPHER_INIT, t, 0);
+		final int len = input.remaining();
+		final int n = cipher.doFinal(input, output);
+		metrics.record(Operation.DECRYPT, Phase.TRANSFORM, t, len);
+		return n;
+	}
+
+	public int encryptedSize(int length) {
+		return HEADER_LENGTH + (length / BLOCK_SIZE + 1) * BLOCK_SIZE;
+	}
+
+	public int decryptedSize(int length) {
+		return Math.max(0, length - HEADER_LENGTH);
+	}
+}
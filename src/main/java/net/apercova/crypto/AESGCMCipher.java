@@ -0,0 +1,379 @@
+package net.apercova.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * Implementación de cifrado autenticado AES/GCM/NoPadding con key PBKDF2WithHmacSHA1
+ * o el {@link KeyDerivationProfile} configurado.
+ * Utiliza vectores de inicialización aleatorios de 12 bytes y tag de 128 bits
+ * agregado al final de la información cifrada, por lo que no requiere un HMAC adicional.
+ * Soporta información adicional autenticada (AAD) mediante {@link #setAad(byte[])}.
+ * <p>
+ * Cada operación se resuelve con un solo {@link Cipher#doFinal(byte[], int, int, byte[], int)}
+ * sobre el contenido completo, lo que permite al JIT aplicar intrinsics AES-NI/CLMUL
+ * sobre bloques grandes. {@link #seal(byte[])} y {@link #encryptFrame(byte[])} producen
+ * el mismo formato empaquetado de {@link CipherText}.
+ * </p>
+ * <p>
+ * Con vectores de inicialización aleatorios no deben cifrarse más de 2<sup>32</sup>
+ * mensajes con la misma llave.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando perfiles de derivación {@link KeyDerivationProfile}
+ * @version 1.2 2026.10 Agregando mediciones {@link CryptoMetrics}
+ * @version 1.3 2026.10 Agregando perfiles aceptados al descifrar
+ *
+ */
+public class AESGCMCipher extends BufferedPBEncryptable implements BufferEncryptable {
+
+	public static final int IV_LENGTH = 12;
+	public static final int TAG_LENGTH = 128;
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	/**
+	 * {@link Cipher} reutilizable por hilo para operaciones completas (init + doFinal).
+	 */
+	private static final ThreadLocal<Cipher> CIPHERS = new ThreadLocal<Cipher>();
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private char[] password;
+	private byte[] salt;
+	private byte[] aad;
+	private KeyDerivationProfile profile;
+	private KeyDerivationProfile[] acceptedProfiles = new KeyDerivationProfile[0];
+	private SecretKeyCache keyCache = SecretKeyCache.getDefault();
+
+	public AESGCMCipher() {
+		this(null,null);
+	}
+
+	public AESGCMCipher(char[] password) {
+		this(password,null);
+	}
+
+	public AESGCMCipher(char[] password, byte[] salt) {
+		this(password, salt, null);
+	}
+
+	/**
+	 * @param password Password
+	 * @param salt Salt
+	 * @param profile Perfil de derivación de llave. {@code null} para {@link KeyDerivationProfile#DEFAULT}
+	 */
+	public AESGCMCipher(char[] password, byte[] salt, KeyDerivationProfile profile) {
+		this.password = (password == null)?AESCBCPKCS5Cipher.DEF_KEY.toCharArray():password;
+		this.salt = (salt == null)?AESCBCPKCS5Cipher.DEF_KEY.getBytes():salt;
+		this.profile = (profile == null)?KeyDerivationProfile.DEFAULT:profile;
+	}
+
+	/**
+	 * Devuelve el {@link Cipher} del hilo actual, creándolo en su primer uso.
+	 * @return {@link Cipher} sin inicializar.
+	 */
+	protected static Cipher threadCipher() throws GeneralSecurityException {
+		Cipher cipher = CIPHERS.get();
+		if(cipher == null) {
+			cipher = Cipher.getInstance(TRANSFORMATION);
+			CIPHERS.set(cipher);
+		}
+		return cipher;
+	}
+
+	/**
+	 * Genera un vector de inicialización aleatorio de {@value #IV_LENGTH} bytes.
+	 * @return Vector de inicialización
+	 */
+	protected static byte[] generateIv() {
+		byte[] iv = new byte[IV_LENGTH];
+		RANDOM.nextBytes(iv);
+		return iv;
+	}
+
+	/**
+	 * Inicializa el {@link Cipher} del hilo actual.
+	 * @param mode {@link Cipher#ENCRYPT_MODE} o {@link Cipher#DECRYPT_MODE}
+	 * @param key Llave
+	 * @param iv Vector de inicialización
+	 * @param aad Información adicional autenticada. Puede ser {@code null}.
+	 * @return {@link Cipher} inicializado
+	 */
+	protected static Cipher initCipher(int mode, SecretKey key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		final long t = metrics.start();
+		Cipher cipher = threadCipher();
+		cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH, iv));
+		if(aad != null && aad.length > 0) {
+			cipher.updateAAD(aad);
+		}
+		metrics.record(operation(mode), Phase.CIPHER_INIT, t, 0);
+		return cipher;
+	}
+
+	static Operation operation(int mode) {
+		return (mode == Cipher.ENCRYPT_MODE)?Operation.ENCRYPT:Operation.DECRYPT;
+	}
+
+	/**
+	 * Completa la operación de un {@link Cipher} inicializado con {@link #initCipher(int, SecretKey, byte[], byte[])}.
+	 */
+	static int doFinal(Cipher cipher, int mode, byte[] input, int inputOffset, int len, byte[] output, int outputOffset) throws GeneralSecurityException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		final long t = metrics.start();
+		final int n = cipher.doFinal(input, inputOffset, len, output, outputOffset);
+		metrics.record(operation(mode), Phase.TRANSFORM, t, len);
+		return n;
+	}
+
+	/**
+	 * Completa la operación de un {@link Cipher} inicializado con {@link #initCipher(int, SecretKey, byte[], byte[])}.
+	 */
+	static int doFinal(Cipher cipher, int mode, ByteBuffer input, ByteBuffer output) throws GeneralSecurityException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		final long t = metrics.start();
+		final int len = input.remaining();
+		final int n = cipher.doFinal(input, output);
+		metrics.record(operation(mode), Phase.TRANSFORM, t, len);
+		return n;
+	}
+
+	protected static byte[] encrypt(byte[] bytes, SecretKey key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+		Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, key, iv, aad);
+		byte[] output = new byte[cipher.getOutputSize(bytes.length)];
+		doFinal(cipher, Cipher.ENCRYPT_MODE, bytes, 0, bytes.length, output, 0);
+		return output;
+	}
+
+	protected static byte[] decrypt(byte[] bytes, SecretKey key, byte[] iv, byte[] aad) throws GeneralSecurityException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		Cipher cipher = initCipher(Cipher.DECRYPT_MODE, key, iv, aad);
+		final long t = metrics.start();
+		final byte[] output = cipher.doFinal(bytes);
+		metrics.record(Operation.DECRYPT, Phase.TRANSFORM, t, bytes.length);
+		return output;
+	}
+
+	protected SecretKey getSecretKey() throws GeneralSecurityException {
+		return getSecretKey(profile);
+	}
+
+	protected SecretKey getSecretKey(KeyDerivationProfile profile) throws GeneralSecurityException {
+		return profile.derive(password, salt, keyCache);
+	}
+
+	@Override
+	public byte[] encrypt() throws Exception {
+		if(getContent() == null) {
+			throw new IllegalStateException("content");
+		}
+		return encrypt(getContent());
+	}
+
+	@Override
+	public byte[] decrypt() throws Exception {
+		if(getContent() == null) {
+			throw new IllegalStateException("content");
+		}
+		return decrypt(getContent());
+	}
+
+	/**
+	 * Cifra información generando un nuevo vector de inicialización
+	 * disponible en {@link #getIv()}.
+	 * @return Información cifrada seguida del tag de autenticación.
+	 */
+	public byte[] encrypt(byte[] bytes) throws Exception {
+		final byte[] nextIv = generateIv();
+		final byte[] encrypted = encrypt(bytes, getSecretKey(), nextIv, aad);
+		iv = nextIv;
+		return encrypted;
+	}
+
+	/**
+	 * Descifra y verifica información con el vector de inicialización de {@link #getIv()}.
+	 * @throws javax.crypto.AEADBadTagException Si la información o AAD fueron alterados.
+	 */
+	public byte[] decrypt(byte[] bytes) throws Exception {
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		return decrypt(bytes, getSecretKey(), iv, aad);
+	}
+
+	/**
+	 * Cifra un rango de un arreglo sobre un arreglo destino sin copias intermedias.
+	 * El destino debe tener al menos {@code len + }{@value #TAG_LENGTH}{@code /8} bytes disponibles.
+	 * El vector de inicialización generado queda disponible en {@link #getIv()}.
+	 * @param input Arreglo origen
+	 * @param inputOffset Posición inicial en origen
+	 * @param len Longitud a cifrar
+	 * @param output Arreglo destino
+	 * @param outputOffset Posición inicial en destino
+	 * @return Bytes escritos en destino.
+	 * @throws Exception Si no es posible cifrar.
+	 */
+	public int encrypt(byte[] input, int inputOffset, int len, byte[] output, int outputOffset) throws Exception {
+		final byte[] nextIv = generateIv();
+		final int n = doFinal(initCipher(Cipher.ENCRYPT_MODE, getSecretKey(), nextIv, aad), Cipher.ENCRYPT_MODE, input, inputOffset, len, output, outputOffset);
+		iv = nextIv;
+		return n;
+	}
+
+	/**
+	 * Descifra un rango de un arreglo sobre un arreglo destino sin copias intermedias.
+	 * El destino debe tener al menos {@code len - }{@value #TAG_LENGTH}{@code /8} bytes disponibles.
+	 * @param input Arreglo origen
+	 * @param inputOffset Posición inicial en origen
+	 * @param len Longitud a descifrar, incluyendo tag.
+	 * @param output Arreglo destino
+	 * @param outputOffset Posición inicial en destino
+	 * @return Bytes escritos en destino.
+	 * @throws Exception Si no es posible descifrar o verificar la información.
+	 */
+	public int decrypt(byte[] input, int inputOffset, int len, byte[] output, int outputOffset) throws Exception {
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		return doFinal(initCipher(Cipher.DECRYPT_MODE, getSecretKey(), iv, aad), Cipher.DECRYPT_MODE, input, inputOffset, len, output, outputOffset);
+	}
+
+	/**
+	 * Cifrado sobre {@link ByteBuffer} mediante {@link Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+	 * El vector de inicialización generado queda disponible en {@link #getIv()}.
+	 * @see BufferEncryptable#encrypt(ByteBuffer, ByteBuffer)
+	 */
+	public int encrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		final byte[] nextIv = generateIv();
+		final int n = doFinal(initCipher(Cipher.ENCRYPT_MODE, getSecretKey(), nextIv, aad), Cipher.ENCRYPT_MODE, input, output);
+		iv = nextIv;
+		return n;
+	}
+
+	/**
+	 * Descifrado sobre {@link ByteBuffer} mediante {@link Cipher#doFinal(ByteBuffer, ByteBuffer)}
+	 * con el vector de inicialización de {@link #getIv()}.
+	 * @see BufferEncryptable#decrypt(ByteBuffer, ByteBuffer)
+	 */
+	public int decrypt(ByteBuffer input, ByteBuffer output) throws Exception {
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		return doFinal(initCipher(Cipher.DECRYPT_MODE, getSecretKey(), iv, aad), Cipher.DECRYPT_MODE, input, output);
+	}
+
+	public int encryptedSize(int length) {
+		return length + TAG_LENGTH / 8;
+	}
+
+	public int decryptedSize(int length) {
+		return Math.max(0, length - TAG_LENGTH / 8);
+	}
+
+	/**
+	 * Cifra información sin modificar el estado de esta instancia.
+	 * @param bytes Información en claro
+	 * @return Información cifrada junto con su vector de inicialización.
+	 * @throws GeneralSecurityException Si no es posible cifrar.
+	 */
+	public CipherText seal(byte[] bytes) throws GeneralSecurityException {
+		final byte[] nextIv = generateIv();
+		return CipherText.wrap(encrypt(bytes, getSecretKey(), nextIv, aad), nextIv, profile);
+	}
+
+	/**
+	 * Descifra información sin modificar el estado de esta instancia.
+	 * @param cipherText Información cifrada junto con su vector de inicialización.
+	 * @return Información en claro
+	 * @throws GeneralSecurityException Si no es posible descifrar o verificar la información,
+	 * o su perfil de derivación no es aceptado.
+	 * @see #setAcceptedProfiles(KeyDerivationProfile...)
+	 */
+	public byte[] open(CipherText cipherText) throws GeneralSecurityException {
+		if(!KeyDerivationProfile.isAccepted(cipherText.getProfile(), profile, acceptedProfiles)) {
+			throw new GeneralSecurityException("Key derivation profile not accepted: " + cipherText.getProfile());
+		}
+		return decrypt(cipherText.data(), getSecretKey(cipherText.getProfile()), cipherText.iv(), aad);
+	}
+
+	/**
+	 * Cifra información en formato empaquetado.
+	 * @see CipherText#toFrame()
+	 */
+	public byte[] encryptFrame(byte[] bytes) throws Exception {
+		return seal(bytes).toFrame();
+	}
+
+	/**
+	 * Descifra información en formato empaquetado.
+	 * @see CipherText#fromFrame(byte[])
+	 */
+	public byte[] decryptFrame(byte[] bytes) throws Exception {
+		final CipherText cipherText = CipherText.fromFrame(bytes);
+		KeyDerivationProfile.checkAccepted(cipherText.getProfile(), profile, acceptedProfiles);
+		return open(cipherText);
+	}
+
+	public byte[] getAad() {
+		return aad;
+	}
+
+	/**
+	 * Define información adicional autenticada, no cifrada, que debe coincidir al descifrar.
+	 * @param aad Información adicional autenticada. {@code null} para omitir.
+	 */
+	public void setAad(byte[] aad) {
+		this.aad = aad;
+	}
+
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Define perfil de derivación de llave para nuevas operaciones.
+	 * El descifrado de formato empaquetado utiliza el perfil registrado en el encabezado,
+	 * si es aceptado: este perfil, los predefinidos o los de {@link #setAcceptedProfiles(KeyDerivationProfile...)}.
+	 * @param profile Perfil de derivación de llave.
+	 */
+	public void setProfile(KeyDerivationProfile profile) {
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		this.profile = profile;
+	}
+
+	public KeyDerivationProfile[] getAcceptedProfiles() {
+		return acceptedProfiles.clone();
+	}
+
+	/**
+	 * Define perfiles adicionales aceptados al descifrar, por ejemplo perfiles
+	 * utilizados antes de {@link #setProfile(KeyDerivationProfile)}.
+	 * @param profiles Perfiles aceptados
+	 */
+	public void setAcceptedProfiles(KeyDerivationProfile... profiles) {
+		this.acceptedProfiles = KeyDerivationProfile.copyOf(profiles);
+	}
+
+	public SecretKeyCache getKeyCache() {
+		return keyCache;
+	}
+
+	/**
+	 * Define cache de llaves derivadas.
+	 * @param keyCache Cache de llaves. {@code null} para derivar la llave en cada operación.
+	 */
+	public void setKeyCache(SecretKeyCache keyCache) {
+		this.keyCache = keyCache;
+	}
+}
@@ -0,0 +1,47 @@
+package net.apercova.crypto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Objeto con capacidad de cifrado sobre {@link ByteBuffer}, en memoria heap o directa,
+ * sin copias intermedias a {@code byte[]}.
+ * Se procesan los bytes entre {@code position} y {@code limit} de origen y se escriben
+ * a partir de {@code position} de destino; ambas posiciones avanzan.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public interface BufferEncryptable extends Encryptable {
+
+	/**
+	 * Implementación de cifrado
+	 * @param input información en claro
+	 * @param output destino de información cifrada
+	 * @return bytes escritos en destino
+	 * @throws Exception
+	 */
+	int encrypt(ByteBuffer input, ByteBuffer output) throws Exception;
+
+	/**
+	 * Implementación de descifrado
+	 * @param input información cifrada
+	 * @param output destino de información en claro
+	 * @return bytes escritos en destino
+	 * @throws Exception
+	 */
+	int decrypt(ByteBuffer input, ByteBuffer output) throws Exception;
+
+	/**
+	 * Espacio en destino requerido para cifrar.
+	 * @param length bytes en claro
+	 * @return bytes cifrados
+	 */
+	int encryptedSize(int length);
+
+	/**
+	 * Espacio máximo en destino requerido para descifrar.
+	 * @param length bytes cifrados
+	 * @return bytes en claro, cota superior
+	 */
+	int decryptedSize(int length);
+}
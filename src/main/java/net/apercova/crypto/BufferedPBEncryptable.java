@@ -1,42 +1,71 @@
 package net.apercova.crypto;
 
+import java.util.Arrays;
+
 /**
  * Objeto con capacidad de cifrado basado en password.
  * Implementacion con buffer actualizable.
  * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
  * @version 1.0 2017.12
+ * @version 1.1 2026.10 Crecimiento amortizado de buffer en {@link #update(byte[])},
+ * el contenido es privado y se consulta con {@link #getContent()}
  *
  */
 public abstract class BufferedPBEncryptable implements PBEncryptable{
 	
-	protected byte[] content;
+	/**
+	 * Contenido de buffer. Se sincroniza con las actualizaciones pendientes
+	 * al invocar {@link #getContent()}; las subclases deben leerlo con ese método.
+	 */
+	private byte[] content;
 	protected byte[] iv;
 	
+	/**
+	 * Buffer de actualizaciones con crecimiento amortizado.
+	 */
+	private byte[] buffer;
+	private int count;
+	
 	protected BufferedPBEncryptable() {
 		content = new byte[0];
 	}
 	
 	protected void reset() {
 		content = new byte[0];
+		buffer = null;
+		count = 0;
 	}
 	
 	/**
 	 * Actualiza contenido de buffer.
+	 * La capacidad crece al doble cuando es necesario, por lo que
+	 * N actualizaciones tienen costo de copia lineal.
+	 * Para contenido de gran tamaño se sugiere cifrado en flujo.
 	 * @param update
 	 */
 	public void update(byte[] update){
 		if(update != null && update.length>0) {
-			if(content == null) {
-				content = new byte[0];
+			if(buffer == null) {
+				buffer = (content == null)?new byte[0]:content;
+				count = buffer.length;
+			}
+			if(count + update.length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(count + update.length, buffer.length << 1));
 			}
-			byte[] buff = new byte[content.length+update.length];
-			System.arraycopy(content, 0, buff, 0, content.length);
-			System.arraycopy(update, 0, buff, content.length, update.length);
-			content = buff;
+			System.arraycopy(update, 0, buffer, count, update.length);
+			count += update.length;
+			content = null;
 		}
 	}
 
+	/**
+	 * @return Contenido de buffer, incluyendo actualizaciones pendientes.
+	 */
 	public byte[] getContent() {
+		if(content == null && buffer != null) {
+			content = (count == buffer.length)?buffer:Arrays.copyOf(buffer, count);
+			buffer = null;
+		}
 		return content;
 	}
 	
@@ -0,0 +1,111 @@
+package net.apercova.crypto;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import net.apercova.crypto.io.CipherHeader;
+
+/**
+ * Resultado inmutable de cifrado: información cifrada junto con su vector de inicialización
+ * y el perfil de derivación de la llave.
+ * Puede empaquetarse en un solo arreglo con el formato de {@link CipherHeader}
+ * seguido de la información cifrada.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public final class CipherText {
+
+	private final byte[] data;
+	private final byte[] iv;
+	private final KeyDerivationProfile profile;
+
+	public CipherText(byte[] data, byte[] iv) {
+		this(data, iv, KeyDerivationProfile.DEFAULT);
+	}
+
+	public CipherText(byte[] data, byte[] iv, KeyDerivationProfile profile) {
+		this(profile, data.clone(), iv.clone());
+	}
+
+	private CipherText(KeyDerivationProfile profile, byte[] data, byte[] iv) {
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		if(data == null) {
+			throw new NullPointerException("data");
+		}
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		this.data = data;
+		this.iv = iv;
+		this.profile = profile;
+	}
+
+	/**
+	 * Sin copia defensiva, para arreglos no compartidos.
+	 */
+	static CipherText wrap(byte[] data, byte[] iv, KeyDerivationProfile profile) {
+		return new CipherText(profile, data, iv);
+	}
+
+	/**
+	 * @return Perfil de derivación de la llave de cifrado.
+	 */
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * @return Copia de la información cifrada.
+	 */
+	public byte[] getData() {
+		return data.clone();
+	}
+
+	/**
+	 * @return Copia del vector de inicialización.
+	 */
+	public byte[] getIv() {
+		return iv.clone();
+	}
+
+	public int length() {
+		return data.length;
+	}
+
+	byte[] data() {
+		return data;
+	}
+
+	byte[] iv() {
+		return iv;
+	}
+
+	/**
+	 * Empaqueta encabezado y la información cifrada en un solo arreglo.
+	 * @return Arreglo empaquetado.
+	 */
+	public byte[] toFrame() {
+		CipherHeader header = new CipherHeader(profile, iv);
+		ByteBuffer frame = ByteBuffer.allocate(header.length() + data.length);
+		header.writeTo(frame);
+		frame.put(data);
+		return frame.array();
+	}
+
+	/**
+	 * Desempaqueta un arreglo generado por {@link #toFrame()}.
+	 * @param frame Arreglo empaquetado.
+	 * @return Resultado de cifrado.
+	 * @throws IOException Si el encabezado es inválido.
+	 */
+	public static CipherText fromFrame(byte[] frame) throws IOException {
+		ByteBuffer buff = ByteBuffer.wrap(frame);
+		CipherHeader header = CipherHeader.readFrom(buff);
+		byte[] data = new byte[buff.remaining()];
+		buff.get(data);
+		return wrap(data, header.getIv(), header.getProfile());
+	}
+}
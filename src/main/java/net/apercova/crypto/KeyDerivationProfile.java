@@ -0,0 +1,266 @@
+package net.apercova.crypto;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * Perfil de derivación de llave basada en password: algoritmo PBKDF2, número de
+ * iteraciones y longitud de llave.
+ * <p>
+ * El perfil se registra en el encabezado de la información cifrada
+ * ({@link #writeTo(ByteBuffer)}), por lo que puede cambiarse sin perder la capacidad
+ * de descifrar información generada con perfiles anteriores.
+ * Al descifrar, cada instancia acepta solo su propio perfil, los perfiles
+ * predefinidos y los que se le indiquen
+ * ({@link #checkAccepted(KeyDerivationProfile, KeyDerivationProfile, KeyDerivationProfile...)}),
+ * para que un encabezado alterado no pueda solicitar una derivación arbitrariamente costosa.
+ * </p>
+ * <pre>
+ * +-----------+------------+------------+
+ * | algorithm | iterations | key length |
+ * | 1 byte    | 4 bytes    | 1 byte     |
+ * +-----------+------------+------------+
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando mediciones de derivación
+ * @version 1.2 2026.10 Agregando verificación de perfiles aceptados al descifrar
+ *
+ */
+public final class KeyDerivationProfile implements SecretKeyCache.KeyDerivation {
+
+	public static final String PBKDF2_HMAC_SHA1 = "PBKDF2WithHmacSHA1";
+	public static final String PBKDF2_HMAC_SHA256 = "PBKDF2WithHmacSHA256";
+	public static final String PBKDF2_HMAC_SHA512 = "PBKDF2WithHmacSHA512";
+
+	/**
+	 * Longitud codificada del perfil en bytes.
+	 */
+	public static final int ENCODED_LENGTH = 6;
+
+	private static final String KEY_ALGORITHM = "AES";
+	private static final String[] ALGORITHMS = {PBKDF2_HMAC_SHA1, PBKDF2_HMAC_SHA256, PBKDF2_HMAC_SHA512};
+
+	/**
+	 * Perfil original: PBKDF2WithHmacSHA1, 65536 iteraciones, llave AES de 128 bits.
+	 */
+	public static final KeyDerivationProfile LEGACY = new KeyDerivationProfile(PBKDF2_HMAC_SHA1, 65536, 128);
+
+	/**
+	 * PBKDF2WithHmacSHA256, 310000 iteraciones, llave AES de 256 bits.
+	 */
+	public static final KeyDerivationProfile PBKDF2_SHA256 = new KeyDerivationProfile(PBKDF2_HMAC_SHA256, 310000, 256);
+
+	/**
+	 * Perfil por omisión. Se mantiene {@link #LEGACY} por compatibilidad.
+	 */
+	public static final KeyDerivationProfile DEFAULT = LEGACY;
+
+	private final String algorithm;
+	private final int iterations;
+	private final int keyLength;
+	private final String context;
+
+	/**
+	 * @param algorithm {@link #PBKDF2_HMAC_SHA1}, {@link #PBKDF2_HMAC_SHA256} o {@link #PBKDF2_HMAC_SHA512}
+	 * @param iterations Número de iteraciones
+	 * @param keyLength Longitud de llave AES en bits: 128, 192 o 256.
+	 */
+	public KeyDerivationProfile(String algorithm, int iterations, int keyLength) {
+		if(algorithmId(algorithm) < 0) {
+			throw new IllegalArgumentException("algorithm: " + algorithm);
+		}
+		if(iterations < 1) {
+			throw new IllegalArgumentException("iterations");
+		}
+		if(keyLength != 128 && keyLength != 192 && keyLength != 256) {
+			throw new IllegalArgumentException("keyLength");
+		}
+		this.algorithm = algorithm;
+		this.iterations = iterations;
+		this.keyLength = keyLength;
+		this.context = algorithm + "/" + iterations + "/" + keyLength + "/" + KEY_ALGORITHM;
+	}
+
+	/**
+	 * Deriva una llave AES.
+	 * @param password Password
+	 * @param salt Salt
+	 * @return Llave derivada
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	public SecretKey derive(char[] password, byte[] salt) throws GeneralSecurityException {
+		final CryptoMetrics metrics = CryptoMetrics.getDefault();
+		final long t = metrics.start();
+		SecretKeyFactory factory = SecretKeyFactory.getInstance(algorithm);
+		PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
+		try {
+			SecretKey tmp = factory.generateSecret(spec);
+			return new SecretKeySpec(tmp.getEncoded(), KEY_ALGORITHM);
+		} finally {
+			spec.clearPassword();
+			metrics.record(Operation.DERIVE, Phase.KEY_DERIVATION, t, 0);
+		}
+	}
+
+	/**
+	 * Deriva una llave AES utilizando un cache de llaves.
+	 * @param password Password
+	 * @param salt Salt
+	 * @param cache Cache de llaves. {@code null} para derivar siempre.
+	 * @return Llave derivada
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	public SecretKey derive(char[] password, byte[] salt, SecretKeyCache cache) throws GeneralSecurityException {
+		if(cache == null) {
+			return derive(password, salt);
+		}
+		return cache.get(context, password, salt, this);
+	}
+
+	/**
+	 * Identificador de parámetros de derivación para {@link SecretKeyCache}.
+	 * @return Identificador
+	 */
+	public String getContext() {
+		return context;
+	}
+
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public int getKeyLength() {
+		return keyLength;
+	}
+
+	/**
+	 * Verifica un perfil leído de información cifrada antes de derivar una llave.
+	 * Se aceptan el perfil propio de quien descifra, {@link #LEGACY},
+	 * {@link #PBKDF2_SHA256} y los perfiles adicionales indicados.
+	 * @param profile Perfil leído
+	 * @param own Perfil propio
+	 * @param accepted Perfiles adicionales aceptados
+	 * @return {@code true} si el perfil es aceptado.
+	 */
+	public static boolean isAccepted(KeyDerivationProfile profile, KeyDerivationProfile own, KeyDerivationProfile... accepted) {
+		if(profile.equals(own) || profile.equals(LEGACY) || profile.equals(PBKDF2_SHA256)) {
+			return true;
+		}
+		for(KeyDerivationProfile candidate : accepted) {
+			if(candidate.equals(profile)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see #isAccepted(KeyDerivationProfile, KeyDerivationProfile, KeyDerivationProfile...)
+	 * @throws IOException Si el perfil no es aceptado.
+	 */
+	public static KeyDerivationProfile checkAccepted(KeyDerivationProfile profile, KeyDerivationProfile own, KeyDerivationProfile... accepted) throws IOException {
+		if(!isAccepted(profile, own, accepted)) {
+			throw new IOException("Key derivation profile not accepted: " + profile);
+		}
+		return profile;
+	}
+
+	/**
+	 * Copia perfiles aceptados verificando que no sean {@code null}.
+	 */
+	static KeyDerivationProfile[] copyOf(KeyDerivationProfile[] profiles) {
+		final KeyDerivationProfile[] copy = profiles.clone();
+		for(int i = 0; i < copy.length; i++) {
+			if(copy[i] == null) {
+				throw new NullPointerException("profiles[" + i + "]");
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Escribe el perfil codificado.
+	 * @param dst Buffer destino
+	 * @return Buffer destino
+	 */
+	public ByteBuffer writeTo(ByteBuffer dst) {
+		dst.put((byte) (algorithmId(algorithm) + 1));
+		dst.putInt(iterations);
+		dst.put((byte) (keyLength / 8));
+		return dst;
+	}
+
+	/**
+	 * Lee un perfil codificado.
+	 * @param src Buffer origen
+	 * @return Perfil
+	 * @throws IOException Si el perfil es inválido.
+	 * @see #checkAccepted(KeyDerivationProfile, KeyDerivationProfile, KeyDerivationProfile...)
+	 */
+	public static KeyDerivationProfile readFrom(ByteBuffer src) throws IOException {
+		if(src.remaining() < ENCODED_LENGTH) {
+			throw new java.io.EOFException("profile");
+		}
+		final int id = (src.get() & 0xFF) - 1;
+		final int iterations = src.getInt();
+		final int keyLength = (src.get() & 0xFF) * 8;
+		if(id < 0 || id >= ALGORITHMS.length) {
+			throw new IOException("Unknown key derivation algorithm: " + (id + 1));
+		}
+		if(LEGACY.matches(ALGORITHMS[id], iterations, keyLength)) {
+			return LEGACY;
+		}
+		try {
+			return new KeyDerivationProfile(ALGORITHMS[id], iterations, keyLength);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid key derivation profile", e);
+		}
+	}
+
+	private boolean matches(String algorithm, int iterations, int keyLength) {
+		return this.algorithm.equals(algorithm) && this.iterations == iterations && this.keyLength == keyLength;
+	}
+
+	private static int algorithmId(String algorithm) {
+		for(int i = 0; i < ALGORITHMS.length; i++) {
+			if(ALGORITHMS[i].equals(algorithm)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof KeyDerivationProfile)) {
+			return false;
+		}
+		KeyDerivationProfile other = (KeyDerivationProfile) obj;
+		return matches(other.algorithm, other.iterations, other.keyLength);
+	}
+
+	@Override
+	public int hashCode() {
+		return context.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return context;
+	}
+}
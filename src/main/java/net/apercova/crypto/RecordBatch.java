@@ -0,0 +1,100 @@
+package net.apercova.crypto;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Lote de registros contiguos en un solo arreglo con índice de posiciones.
+ * El registro {@code i} ocupa {@code [offset(i), offset(i + 1))} del buffer.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public final class RecordBatch {
+
+	private final byte[] buffer;
+	private final int[] offsets;
+
+	/**
+	 * @param buffer Registros contiguos
+	 * @param offsets Índice de posiciones con {@code n + 1} elementos, el último es el fin del último registro.
+	 */
+	public RecordBatch(byte[] buffer, int[] offsets) {
+		if(buffer == null) {
+			throw new NullPointerException("buffer");
+		}
+		if(offsets == null) {
+			throw new NullPointerException("offsets");
+		}
+		if(offsets.length < 1 || offsets[offsets.length - 1] > buffer.length) {
+			throw new IllegalArgumentException("offsets");
+		}
+		for(int i = 1; i < offsets.length; i++) {
+			if(offsets[i] < offsets[i - 1]) {
+				throw new IllegalArgumentException("offsets");
+			}
+		}
+		this.buffer = buffer;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Construye un lote copiando los registros en un solo arreglo.
+	 * @param records Registros
+	 * @return Lote de registros
+	 */
+	public static RecordBatch of(byte[]... records) {
+		int[] offsets = new int[records.length + 1];
+		for(int i = 0; i < records.length; i++) {
+			offsets[i + 1] = offsets[i] + records[i].length;
+		}
+		byte[] buffer = new byte[offsets[records.length]];
+		for(int i = 0; i < records.length; i++) {
+			System.arraycopy(records[i], 0, buffer, offsets[i], records[i].length);
+		}
+		return new RecordBatch(buffer, offsets);
+	}
+
+	/**
+	 * @return Número de registros
+	 */
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	public int offset(int index) {
+		return offsets[index];
+	}
+
+	public int length(int index) {
+		return offsets[index + 1] - offsets[index];
+	}
+
+	/**
+	 * @return Copia del registro
+	 */
+	public byte[] get(int index) {
+		return Arrays.copyOfRange(buffer, offsets[index], offsets[index + 1]);
+	}
+
+	/**
+	 * @return Vista de sólo lectura del registro sin copia.
+	 */
+	public ByteBuffer slice(int index) {
+		return ByteBuffer.wrap(buffer, offsets[index], length(index)).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return Arreglo compartido de registros contiguos.
+	 */
+	public byte[] buffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return Arreglo compartido del índice de posiciones.
+	 */
+	public int[] offsets() {
+		return offsets;
+	}
+}
@@ -0,0 +1,396 @@
+package net.apercova.crypto;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cache acotado y seguro para hilos de llaves derivadas a partir de password y salt.
+ * Evita repetir la derivación (p. ej. PBKDF2) cuando se opera varias veces con
+ * las mismas credenciales.
+ * <p>
+ * Las entradas se identifican por un digest SHA-256 del contexto de derivación,
+ * password y salt, por lo que el cache no retiene el password en claro.
+ * Soporta desalojo LRU por tamaño máximo y expiración por tiempo desde su creación.
+ * El material de llave desalojado, expirado o invalidado se sobreescribe con ceros.
+ * Cada consulta devuelve una copia de la llave, de modo que el desalojo no afecta
+ * operaciones en curso.
+ * </p>
+ * <p>
+ * {@link #getAsync(KeyDerivationProfile, char[], byte[])} permite derivar llaves por
+ * anticipado (p. ej. al iniciar o al rotar credenciales) sobre un executor dedicado,
+ * fuera de los hilos de atención. Las consultas síncronas con las mismas credenciales
+ * esperan la derivación en curso en lugar de repetirla.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando derivación asíncrona {@link #getAsync(KeyDerivationProfile, char[], byte[])}
+ *
+ */
+public class SecretKeyCache {
+
+	/**
+	 * Derivación de llave a ejecutar cuando no existe una entrada en cache.
+	 */
+	public interface KeyDerivation {
+
+		/**
+		 * Deriva una llave.
+		 * @param password Password
+		 * @param salt Salt
+		 * @return Llave derivada
+		 * @throws GeneralSecurityException Si no es posible derivar la llave.
+		 */
+		SecretKey derive(char[] password, byte[] salt) throws GeneralSecurityException;
+	}
+
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final SecretKeyCache DEFAULT = new SecretKeyCache(DEFAULT_MAX_SIZE, 0L, TimeUnit.MILLISECONDS);
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final LinkedHashMap<CacheKey, Entry> entries;
+	private final ConcurrentHashMap<CacheKey, CompletableFuture<SecretKey>> pending = new ConcurrentHashMap<CacheKey, CompletableFuture<SecretKey>>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Cache LRU sin expiración por tiempo.
+	 * @param maxSize Número máximo de llaves.
+	 */
+	public SecretKeyCache(int maxSize) {
+		this(maxSize, 0L, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cache LRU con expiración por tiempo.
+	 * @param maxSize Número máximo de llaves.
+	 * @param ttl Tiempo de vida de cada llave desde su creación. {@code 0} para no expirar.
+	 * @param unit Unidad de {@code ttl}
+	 */
+	public SecretKeyCache(int maxSize, long ttl, TimeUnit unit) {
+		if(maxSize < 1) {
+			throw new IllegalArgumentException("maxSize");
+		}
+		if(ttl < 0) {
+			throw new IllegalArgumentException("ttl");
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = unit.toNanos(ttl);
+		this.entries = new LinkedHashMap<CacheKey, Entry>(16, 0.75f, true);
+	}
+
+	/**
+	 * Cache compartido por omisión.
+	 * @return Instancia compartida de {@link SecretKeyCache}
+	 */
+	public static SecretKeyCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Devuelve la llave asociada a las credenciales, derivándola sólo si no
+	 * se encuentra en cache. Si existe una derivación asíncrona en curso para las
+	 * mismas credenciales se espera su resultado. Accesos síncronos concurrentes
+	 * antes de que la llave se encuentre en cache pueden derivarla más de una vez.
+	 * @param context Identificador de parámetros de derivación (algoritmo, rondas, longitud)
+	 * @param password Password
+	 * @param salt Salt
+	 * @param derivation Derivación a utilizar en caso de no encontrarse la llave.
+	 * @return Copia de la llave derivada.
+	 * @throws GeneralSecurityException Si no es posible derivar la llave.
+	 */
+	public SecretKey get(String context, char[] password, byte[] salt, KeyDerivation derivation) throws GeneralSecurityException {
+		final CacheKey key = new CacheKey(context, password, salt);
+		SecretKey cached = lookup(key);
+		if(cached != null) {
+			return cached;
+		}
+		CompletableFuture<SecretKey> inFlight = pending.get(key);
+		if(inFlight != null) {
+			return await(inFlight);
+		}
+		return derive(key, password, salt, derivation);
+	}
+
+	/**
+	 * Devuelve la llave asociada al perfil y credenciales.
+	 * @see #get(String, char[], byte[], KeyDerivation)
+	 */
+	public SecretKey get(KeyDerivationProfile profile, char[] password, byte[] salt) throws GeneralSecurityException {
+		return get(profile.getContext(), password, salt, profile);
+	}
+
+	/**
+	 * Deriva por anticipado la llave asociada al perfil y credenciales sobre el
+	 * executor dedicado de derivación.
+	 * @see #getAsync(KeyDerivationProfile, char[], byte[], Executor)
+	 */
+	public CompletableFuture<SecretKey> getAsync(KeyDerivationProfile profile, char[] password, byte[] salt) {
+		return getAsync(profile, password, salt, DerivationExecutorHolder.EXECUTOR);
+	}
+
+	/**
+	 * Deriva por anticipado la llave asociada al perfil y credenciales.
+	 * Si la llave ya se encuentra en cache el resultado se completa de inmediato;
+	 * si existe una derivación en curso para las mismas credenciales se reutiliza.
+	 * Password y salt se copian, por lo que pueden limpiarse al regresar.
+	 * @param profile Perfil de derivación
+	 * @param password Password
+	 * @param salt Salt
+	 * @param executor Executor donde se ejecuta la derivación.
+	 * @return Copia de la llave derivada al completarse.
+	 */
+	public CompletableFuture<SecretKey> getAsync(final KeyDerivationProfile profile, char[] password, byte[] salt, Executor executor) {
+		final CacheKey key = new CacheKey(profile.getContext(), password, salt);
+		SecretKey cached = lookup(key);
+		if(cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		final CompletableFuture<SecretKey> future = new CompletableFuture<SecretKey>();
+		CompletableFuture<SecretKey> inFlight = pending.putIfAbsent(key, future);
+		if(inFlight != null) {
+			return inFlight;
+		}
+		final char[] pwd = password.clone();
+		final byte[] slt = salt.clone();
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						future.complete(derive(key, pwd, slt, profile));
+					} catch (Throwable e) {
+						future.completeExceptionally(e);
+					} finally {
+						pending.remove(key, future);
+						Arrays.fill(pwd, '\0');
+						Arrays.fill(slt, (byte) 0);
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			pending.remove(key, future);
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	private SecretKey derive(CacheKey key, char[] password, byte[] salt, KeyDerivation derivation) throws GeneralSecurityException {
+		SecretKey derived = derivation.derive(password, salt);
+		byte[] material = derived.getEncoded();
+		SecretKey copy = new SecretKeySpec(material, derived.getAlgorithm());
+		store(key, new Entry(material, derived.getAlgorithm(), System.nanoTime()));
+		return copy;
+	}
+
+	private static SecretKey await(CompletableFuture<SecretKey> future) throws GeneralSecurityException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GeneralSecurityException("Interrupted while waiting for key derivation", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof GeneralSecurityException) {
+				throw (GeneralSecurityException) cause;
+			}
+			throw new GeneralSecurityException(cause);
+		}
+	}
+
+	private synchronized SecretKey lookup(CacheKey key) {
+		Entry entry = entries.get(key);
+		if(entry != null && isExpired(entry, System.nanoTime())) {
+			entries.remove(key);
+			entry.destroy();
+			evictions.incrementAndGet();
+			entry = null;
+		}
+		if(entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return new SecretKeySpec(entry.material, entry.algorithm);
+	}
+
+	private synchronized void store(CacheKey key, Entry entry) {
+		Entry previous = entries.put(key, entry);
+		if(previous != null) {
+			previous.destroy();
+		}
+		if(entries.size() > maxSize) {
+			Iterator<Entry> it = entries.values().iterator();
+			while(entries.size() > maxSize && it.hasNext()) {
+				Entry eldest = it.next();
+				it.remove();
+				eldest.destroy();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return ttlNanos > 0 && now - entry.created >= ttlNanos;
+	}
+
+	/**
+	 * Elimina y destruye la llave asociada a las credenciales.
+	 * @param context Identificador de parámetros de derivación
+	 * @param password Password
+	 * @param salt Salt
+	 */
+	public synchronized void invalidate(String context, char[] password, byte[] salt) {
+		Entry entry = entries.remove(new CacheKey(context, password, salt));
+		if(entry != null) {
+			entry.destroy();
+		}
+	}
+
+	/**
+	 * Elimina y destruye las llaves expiradas.
+	 */
+	public synchronized void purgeExpired() {
+		final long now = System.nanoTime();
+		for(Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+			Entry entry = it.next();
+			if(isExpired(entry, now)) {
+				it.remove();
+				entry.destroy();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Elimina y destruye todas las llaves.
+	 */
+	public synchronized void clear() {
+		for(Entry entry: entries.values()) {
+			entry.destroy();
+		}
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Executor dedicado de derivación, creado en su primer uso.
+	 * Utiliza hilos daemon de baja prioridad, uno por cada dos procesadores.
+	 */
+	private static class DerivationExecutorHolder {
+		private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+				Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "key-derivation-" + count.incrementAndGet());
+						t.setDaemon(true);
+						t.setPriority(Thread.NORM_PRIORITY - 1);
+						return t;
+					}
+				});
+	}
+
+	/**
+	 * Llave derivada en cache.
+	 */
+	private static final class Entry {
+		private final byte[] material;
+		private final String algorithm;
+		private final long created;
+
+		private Entry(byte[] material, String algorithm, long created) {
+			this.material = material;
+			this.algorithm = algorithm;
+			this.created = created;
+		}
+
+		private void destroy() {
+			Arrays.fill(material, (byte) 0);
+		}
+	}
+
+	/**
+	 * Identificador de entrada: digest SHA-256 de contexto, password y salt.
+	 */
+	private static final class CacheKey {
+		private final byte[] digest;
+		private final int hash;
+
+		private CacheKey(String context, char[] password, byte[] salt) {
+			MessageDigest md;
+			try {
+				md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(DIGEST_ALGORITHM, e);
+			}
+			md.update(String.valueOf(context).getBytes(UTF8));
+			md.update((byte) 0);
+			ByteBuffer pwd = UTF8.encode(CharBuffer.wrap(password));
+			byte[] pwdBytes = new byte[pwd.remaining()];
+			pwd.get(pwdBytes);
+			md.update(ByteBuffer.allocate(4).putInt(pwdBytes.length).array());
+			md.update(pwdBytes);
+			Arrays.fill(pwdBytes, (byte) 0);
+			if(pwd.hasArray()) {
+				Arrays.fill(pwd.array(), (byte) 0);
+			}
+			md.update(salt);
+			this.digest = md.digest();
+			this.hash = Arrays.hashCode(digest);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CacheKey && MessageDigest.isEqual(digest, ((CacheKey) obj).digest);
+		}
+	}
+}
@@ -0,0 +1,506 @@
+package net.apercova.crypto;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * Cifrado AES/GCM por segmentos independientes, procesados en paralelo sobre un {@link ForkJoinPool}.
+ * <p>
+ * El contenido se divide en segmentos de tamaño fijo; cada segmento tiene su propio
+ * vector de inicialización y tag de autenticación, por lo que puede cifrarse, descifrarse
+ * o leerse de manera independiente ({@link #decryptSegment(byte[], int)}).
+ * El encabezado y el índice de cada segmento se autentican como AAD, de modo que
+ * reordenar, truncar o combinar segmentos invalida el contenedor.
+ * </p>
+ * <pre>
+ * Contenedor (versión 2; la versión 1 omite kdf profile y utiliza {@link KeyDerivationProfile#LEGACY}):
+ * +---------+---------+-------------+--------------+------------------+-----------+-----+-----------+
+ * | magic   | version | kdf profile | segment size | plaintext length | segment 0 | ... | segment n |
+ * | 4 bytes | 1 byte  | 6 bytes     | 4 bytes      | 8 bytes          |           |     |           |
+ * +---------+---------+-------------+--------------+------------------+-----------+-----+-----------+
+ * Segmento:
+ * +----------+------------------------+----------+
+ * | iv       | ciphertext             | tag      |
+ * | 12 bytes | &lt;= segment size bytes | 16 bytes |
+ * +----------+------------------------+----------+
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Registrando {@link KeyDerivationProfile} en el encabezado
+ * @version 1.2 2026.10 Agregando perfiles aceptados al descifrar
+ *
+ */
+public class SegmentedAESGCMCipher implements Encryptable {
+
+	/**
+	 * "APCG"
+	 */
+	public static final int MAGIC = 0x41504347;
+	public static final byte VERSION = 2;
+	public static final int HEADER_LENGTH = 17 + KeyDerivationProfile.ENCODED_LENGTH;
+	private static final byte VERSION_1 = 1;
+	private static final int HEADER_LENGTH_V1 = 17;
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+	private static final int SEGMENT_OVERHEAD = AESGCMCipher.IV_LENGTH + AESGCMCipher.TAG_LENGTH / 8;
+
+	private final char[] password;
+	private final byte[] salt;
+	private final int segmentSize;
+	private final ForkJoinPool pool;
+	private KeyDerivationProfile profile = KeyDerivationProfile.DEFAULT;
+	private KeyDerivationProfile[] acceptedProfiles = new KeyDerivationProfile[0];
+	private SecretKeyCache keyCache = SecretKeyCache.getDefault();
+
+	public SegmentedAESGCMCipher(char[] password, byte[] salt) {
+		this(password, salt, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param password Password
+	 * @param salt Salt
+	 * @param segmentSize Tamaño de segmento en claro.
+	 * @param pool {@link ForkJoinPool} donde se procesan los segmentos.
+	 */
+	public SegmentedAESGCMCipher(char[] password, byte[] salt, int segmentSize, ForkJoinPool pool) {
+		if(segmentSize < 1 || segmentSize > Integer.MAX_VALUE - SEGMENT_OVERHEAD) {
+			throw new IllegalArgumentException("segmentSize");
+		}
+		if(pool == null) {
+			throw new NullPointerException("pool");
+		}
+		this.password = (password == null)?AESCBCPKCS5Cipher.DEF_KEY.toCharArray():password;
+		this.salt = (salt == null)?AESCBCPKCS5Cipher.DEF_KEY.getBytes():salt;
+		this.segmentSize = segmentSize;
+		this.pool = pool;
+	}
+
+	/**
+	 * Cifra información en un contenedor segmentado.
+	 * @param bytes Información en claro
+	 * @return Contenedor cifrado
+	 */
+	public byte[] encrypt(byte[] bytes) throws Exception {
+		final Header header = new Header(profile, segmentSize, bytes.length);
+		final long length = header.containerLength();
+		if(length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Content too large for byte[] container, use encrypt(Path, Path)");
+		}
+		final byte[] container = new byte[(int) length];
+		header.writeTo(ByteBuffer.wrap(container));
+		final SecretKey key = getSecretKey(header.profile);
+		invoke(header.segmentCount(), new SegmentProcessor() {
+			public void process(int index) throws GeneralSecurityException {
+				ByteBuffer plain = ByteBuffer.wrap(bytes, (int) header.plainOffset(index), header.plainLength(index));
+				ByteBuffer out = ByteBuffer.wrap(container, (int) header.segmentOffset(index), header.segmentLength(index));
+				encryptSegment(key, header, index, plain, out);
+			}
+		});
+		return container;
+	}
+
+	/**
+	 * Descifra un contenedor segmentado.
+	 * @param bytes Contenedor cifrado
+	 * @return Información en claro
+	 */
+	public byte[] decrypt(byte[] bytes) throws Exception {
+		final Header header = readHeader(ByteBuffer.wrap(bytes));
+		header.checkLength(bytes.length);
+		final byte[] plain = new byte[(int) header.plainLength];
+		final SecretKey key = getSecretKey(header.profile);
+		invoke(header.segmentCount(), new SegmentProcessor() {
+			public void process(int index) throws GeneralSecurityException {
+				ByteBuffer in = ByteBuffer.wrap(bytes, (int) header.segmentOffset(index), header.segmentLength(index));
+				ByteBuffer out = ByteBuffer.wrap(plain, (int) header.plainOffset(index), header.plainLength(index));
+				decryptSegment(key, header, index, in, out);
+			}
+		});
+		return plain;
+	}
+
+	/**
+	 * Descifra un solo segmento de un contenedor.
+	 * @param bytes Contenedor cifrado
+	 * @param index Índice de segmento
+	 * @return Información en claro del segmento.
+	 */
+	public byte[] decryptSegment(byte[] bytes, int index) throws Exception {
+		final Header header = readHeader(ByteBuffer.wrap(bytes));
+		header.checkLength(bytes.length);
+		header.checkIndex(index);
+		final byte[] plain = new byte[header.plainLength(index)];
+		decryptSegment(getSecretKey(header.profile), header, index,
+				ByteBuffer.wrap(bytes, (int) header.segmentOffset(index), header.segmentLength(index)),
+				ByteBuffer.wrap(plain));
+		return plain;
+	}
+
+	/**
+	 * Cifra un archivo en un contenedor segmentado. Cada segmento se lee y escribe
+	 * con acceso posicional, por lo que la memoria utilizada es proporcional al
+	 * tamaño de segmento y al paralelismo, no al tamaño del archivo.
+	 * @param source Archivo en claro
+	 * @param target Contenedor cifrado
+	 */
+	public void encrypt(Path source, Path target) throws Exception {
+		final FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+		try {
+			final FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				final Header header = new Header(profile, segmentSize, in.size());
+				writeFully(out, header.writeTo(ByteBuffer.allocate(HEADER_LENGTH)), 0);
+				final SecretKey key = getSecretKey(header.profile);
+				invoke(header.segmentCount(), new SegmentProcessor() {
+					public void process(int index) throws GeneralSecurityException, IOException {
+						ByteBuffer plain = readFully(in, ByteBuffer.allocate(header.plainLength(index)), header.plainOffset(index));
+						ByteBuffer segment = ByteBuffer.allocate(header.segmentLength(index));
+						encryptSegment(key, header, index, plain, segment);
+						segment.flip();
+						writeFully(out, segment, header.segmentOffset(index));
+					}
+				});
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Descifra un contenedor segmentado en archivo.
+	 * @param source Contenedor cifrado
+	 * @param target Archivo en claro
+	 */
+	public void decrypt(Path source, Path target) throws Exception {
+		final FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+		try {
+			final FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				final Header header = readHeader(readFully(in, ByteBuffer.allocate(HEADER_LENGTH), 0));
+				header.checkLength(in.size());
+				final SecretKey key = getSecretKey(header.profile);
+				invoke(header.segmentCount(), new SegmentProcessor() {
+					public void process(int index) throws GeneralSecurityException, IOException {
+						ByteBuffer segment = readFully(in, ByteBuffer.allocate(header.segmentLength(index)), header.segmentOffset(index));
+						ByteBuffer plain = ByteBuffer.allocate(header.plainLength(index));
+						decryptSegment(key, header, index, segment, plain);
+						plain.flip();
+						writeFully(out, plain, header.plainOffset(index));
+					}
+				});
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Descifra un solo segmento de un contenedor en archivo.
+	 * @param source Contenedor cifrado
+	 * @param index Índice de segmento
+	 * @return Información en claro del segmento.
+	 */
+	public byte[] decryptSegment(FileChannel source, int index) throws Exception {
+		final Header header = readHeader(readFully(source, ByteBuffer.allocate(HEADER_LENGTH), 0));
+		header.checkLength(source.size());
+		header.checkIndex(index);
+		final byte[] plain = new byte[header.plainLength(index)];
+		decryptSegment(getSecretKey(header.profile), header, index,
+				readFully(source, ByteBuffer.allocate(header.segmentLength(index)), header.segmentOffset(index)),
+				ByteBuffer.wrap(plain));
+		return plain;
+	}
+
+	protected SecretKey getSecretKey(KeyDerivationProfile profile) throws GeneralSecurityException {
+		return profile.derive(password, salt, keyCache);
+	}
+
+	/**
+	 * Lee un encabezado cuyo perfil de derivación sea aceptado.
+	 */
+	private Header readHeader(ByteBuffer src) throws IOException {
+		final Header header = Header.readFrom(src);
+		KeyDerivationProfile.checkAccepted(header.profile, profile, acceptedProfiles);
+		return header;
+	}
+
+	private static void encryptSegment(SecretKey key, Header header, int index, ByteBuffer plain, ByteBuffer out) throws GeneralSecurityException {
+		final byte[] iv = AESGCMCipher.generateIv();
+		out.put(iv);
+		Cipher cipher = AESGCMCipher.initCipher(Cipher.ENCRYPT_MODE, key, iv, header.aad(index));
+		AESGCMCipher.doFinal(cipher, Cipher.ENCRYPT_MODE, plain, out);
+	}
+
+	private static void decryptSegment(SecretKey key, Header header, int index, ByteBuffer in, ByteBuffer out) throws GeneralSecurityException {
+		final byte[] iv = new byte[AESGCMCipher.IV_LENGTH];
+		in.get(iv);
+		Cipher cipher = AESGCMCipher.initCipher(Cipher.DECRYPT_MODE, key, iv, header.aad(index));
+		AESGCMCipher.doFinal(cipher, Cipher.DECRYPT_MODE, in, out);
+	}
+
+	private static ByteBuffer readFully(FileChannel in, ByteBuffer dst, long position) throws IOException {
+		while(dst.hasRemaining()) {
+			int n = in.read(dst, position + dst.position());
+			if(n < 0) {
+				throw new EOFException();
+			}
+		}
+		dst.flip();
+		return dst;
+	}
+
+	private static void writeFully(FileChannel out, ByteBuffer src, long position) throws IOException {
+		src.rewind();
+		while(src.hasRemaining()) {
+			out.write(src, position + src.position());
+		}
+	}
+
+	/**
+	 * Ejecuta la acción en el pool y propaga la excepción original de cada segmento.
+	 */
+	private void invoke(int segments, SegmentProcessor processor) throws Exception {
+		try {
+			pool.invoke(new SegmentAction(processor, 0, segments));
+		} catch (SegmentException e) {
+			Throwable cause = e;
+			while(cause instanceof SegmentException) {
+				cause = cause.getCause();
+			}
+			throw (cause instanceof Exception)?(Exception) cause:e;
+		}
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Define perfil de derivación de llave para nuevos contenedores.
+	 * El descifrado utiliza el perfil registrado en el encabezado, si es aceptado:
+	 * este perfil, los predefinidos o los de {@link #setAcceptedProfiles(KeyDerivationProfile...)}.
+	 * @param profile Perfil de derivación de llave.
+	 */
+	public void setProfile(KeyDerivationProfile profile) {
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		this.profile = profile;
+	}
+
+	public KeyDerivationProfile[] getAcceptedProfiles() {
+		return acceptedProfiles.clone();
+	}
+
+	/**
+	 * Define perfiles adicionales aceptados al descifrar, por ejemplo perfiles
+	 * utilizados antes de {@link #setProfile(KeyDerivationProfile)}.
+	 * @param profiles Perfiles aceptados
+	 */
+	public void setAcceptedProfiles(KeyDerivationProfile... profiles) {
+		this.acceptedProfiles = KeyDerivationProfile.copyOf(profiles);
+	}
+
+	public SecretKeyCache getKeyCache() {
+		return keyCache;
+	}
+
+	/**
+	 * Define cache de llaves derivadas.
+	 * @param keyCache Cache de llaves. {@code null} para derivar la llave en cada operación.
+	 */
+	public void setKeyCache(SecretKeyCache keyCache) {
+		this.keyCache = keyCache;
+	}
+
+	/**
+	 * Procesamiento de un segmento.
+	 */
+	private interface SegmentProcessor {
+		void process(int index) throws Exception;
+	}
+
+	/**
+	 * Procesa un rango de segmentos dividiéndolo recursivamente por mitades.
+	 */
+	private static final class SegmentAction extends RecursiveAction {
+
+		private static final long serialVersionUID = -2364938409129307718L;
+		private final transient SegmentProcessor processor;
+		private final int from;
+		private final int to;
+
+		private SegmentAction(SegmentProcessor processor, int from, int to) {
+			this.processor = processor;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= 1) {
+				computeDirectly();
+			} else {
+				final int mid = (from + to) >>> 1;
+				SegmentAction r1 = new SegmentAction(processor, from, mid);//computed directly or split
+				SegmentAction r2 = new SegmentAction(processor, mid, to);//Recursive action
+				r2.fork();
+				r1.compute();
+				r2.join();
+			}
+		}
+
+		private void computeDirectly() {
+			for(int i = from; i < to; i++) {
+				try {
+					processor.process(i);
+				} catch (Exception e) {
+					throw new SegmentException(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Excepción de procesamiento de segmento.
+	 */
+	private static final class SegmentException extends RuntimeException {
+		private static final long serialVersionUID = 5129786237071845092L;
+
+		private SegmentException(Throwable cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * Encabezado de contenedor y aritmética de posiciones de segmentos.
+	 */
+	private static final class Header {
+		private final KeyDerivationProfile profile;
+		private final int segmentSize;
+		private final long plainLength;
+		private final byte[] bytes;
+
+		private Header(KeyDerivationProfile profile, int segmentSize, long plainLength) {
+			this.profile = profile;
+			this.segmentSize = segmentSize;
+			this.plainLength = plainLength;
+			ByteBuffer dst = ByteBuffer.allocate(HEADER_LENGTH);
+			dst.putInt(MAGIC);
+			dst.put(VERSION);
+			profile.writeTo(dst);
+			dst.putInt(segmentSize);
+			dst.putLong(plainLength);
+			this.bytes = dst.array();
+		}
+
+		/**
+		 * Encabezado leído, conserva su codificación original para autenticarla como AAD.
+		 */
+		private Header(KeyDerivationProfile profile, int segmentSize, long plainLength, byte[] bytes) {
+			this.profile = profile;
+			this.segmentSize = segmentSize;
+			this.plainLength = plainLength;
+			this.bytes = bytes;
+		}
+
+		private ByteBuffer writeTo(ByteBuffer dst) {
+			return dst.put(bytes);
+		}
+
+		private static Header readFrom(ByteBuffer src) throws IOException {
+			final int start = src.position();
+			if(src.remaining() < HEADER_LENGTH_V1) {
+				throw new EOFException("header");
+			}
+			final int magic = src.getInt();
+			if(magic != MAGIC) {
+				throw new IOException("Invalid header magic: " + Integer.toHexString(magic));
+			}
+			final byte version = src.get();
+			final KeyDerivationProfile profile;
+			if(version == VERSION_1) {
+				profile = KeyDerivationProfile.LEGACY;
+			} else if(version == VERSION) {
+				profile = KeyDerivationProfile.readFrom(src);
+			} else {
+				throw new IOException("Unsupported header version: " + version);
+			}
+			if(src.remaining() < 12) {
+				throw new EOFException("header");
+			}
+			final int segmentSize = src.getInt();
+			final long plainLength = src.getLong();
+			if(segmentSize < 1 || segmentSize > Integer.MAX_VALUE - SEGMENT_OVERHEAD || plainLength < 0) {
+				throw new IOException("Invalid header");
+			}
+			final byte[] bytes = new byte[src.position() - start];
+			((ByteBuffer) src.duplicate().position(start)).get(bytes);
+			return new Header(profile, segmentSize, plainLength, bytes);
+		}
+
+		private int segmentCount() {
+			final long count = (plainLength == 0)?1:(plainLength + segmentSize - 1) / segmentSize;
+			if(count > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Too many segments, increase segmentSize");
+			}
+			return (int) count;
+		}
+
+		private long containerLength() {
+			return bytes.length + (long) segmentCount() * SEGMENT_OVERHEAD + plainLength;
+		}
+
+		private void checkLength(long length) throws IOException {
+			if(length != containerLength()) {
+				throw new IOException("Invalid container length: " + length);
+			}
+		}
+
+		private void checkIndex(int index) {
+			if(index < 0 || index >= segmentCount()) {
+				throw new IndexOutOfBoundsException("segment: " + index);
+			}
+		}
+
+		private long plainOffset(int index) {
+			return (long) index * segmentSize;
+		}
+
+		private int plainLength(int index) {
+			return (int) Math.min(segmentSize, plainLength - plainOffset(index));
+		}
+
+		private long segmentOffset(int index) {
+			return bytes.length + (long) index * (segmentSize + SEGMENT_OVERHEAD);
+		}
+
+		private int segmentLength(int index) {
+			return plainLength(index) + SEGMENT_OVERHEAD;
+		}
+
+		/**
+		 * Encabezado seguido del índice de segmento.
+		 */
+		private byte[] aad(int index) {
+			return ByteBuffer.allocate(bytes.length + 4).put(bytes).putInt(index).array();
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package net.apercova.crypto.io;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import net.apercova.crypto.KeyDerivationProfile;
+
+/**
+ * Encabezado autodescriptivo de contenido cifrado en flujo.
+ * <pre>
+ * Versión 2:
+ * +---------+---------+-----------------+-----------+----------+
+ * | magic   | version | kdf profile     | iv length | iv       |
+ * | 4 bytes | 1 byte  | 6 bytes         | 1 byte    | n bytes  |
+ * +---------+---------+-----------------+-----------+----------+
+ * Versión 1 (sólo lectura, perfil {@link KeyDerivationProfile#LEGACY}):
+ * +---------+---------+-----------+----------+
+ * | magic   | version | iv length | iv       |
+ * | 4 bytes | 1 byte  | 1 byte    | n bytes  |
+ * +---------+---------+-----------+----------+
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Registrando {@link KeyDerivationProfile} en el encabezado
+ *
+ */
+public final class CipherHeader {
+
+	/**
+	 * "APCE"
+	 */
+	public static final int MAGIC = 0x41504345;
+	public static final byte VERSION = 2;
+	private static final byte VERSION_1 = 1;
+	private static final int PREFIX_LENGTH = 5;
+
+	private final KeyDerivationProfile profile;
+	private final byte[] iv;
+
+	public CipherHeader(byte[] iv) {
+		this(KeyDerivationProfile.DEFAULT, iv);
+	}
+
+	public CipherHeader(KeyDerivationProfile profile, byte[] iv) {
+		if(profile == null) {
+			throw new NullPointerException("profile");
+		}
+		if(iv == null) {
+			throw new NullPointerException("iv");
+		}
+		if(iv.length > 0xFF) {
+			throw new IllegalArgumentException("iv");
+		}
+		this.profile = profile;
+		this.iv = iv.clone();
+	}
+
+	/**
+	 * @return Perfil de derivación de llave con que se cifró el contenido.
+	 */
+	public KeyDerivationProfile getProfile() {
+		return profile;
+	}
+
+	public byte[] getIv() {
+		return iv.clone();
+	}
+
+	/**
+	 * Longitud en bytes del encabezado.
+	 * @return Longitud del encabezado.
+	 */
+	public int length() {
+		return PREFIX_LENGTH + KeyDerivationProfile.ENCODED_LENGTH + 1 + iv.length;
+	}
+
+	/**
+	 * Escribe el encabezado en un {@link ByteBuffer}
+	 * @param dst Buffer destino
+	 * @return Buffer destino
+	 */
+	public ByteBuffer writeTo(ByteBuffer dst) {
+		dst.putInt(MAGIC);
+		dst.put(VERSION);
+		profile.writeTo(dst);
+		dst.put((byte) iv.length);
+		dst.put(iv);
+		return dst;
+	}
+
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(writeTo(ByteBuffer.allocate(length())).array());
+	}
+
+	public void writeTo(WritableByteChannel out) throws IOException {
+		ByteBuffer buff = writeTo(ByteBuffer.allocate(length()));
+		buff.flip();
+		while(buff.hasRemaining()) {
+			out.write(buff);
+		}
+	}
+
+	/**
+	 * Lee un encabezado desde un {@link ByteBuffer}
+	 * @param src Buffer origen
+	 * @return Encabezado
+	 * @throws IOException Si el encabezado es inválido.
+	 */
+	public static CipherHeader readFrom(ByteBuffer src) throws IOException {
+		if(src.remaining() < PREFIX_LENGTH) {
+			throw new EOFException("header");
+		}
+		final KeyDerivationProfile profile = (checkPrefix(src.getInt(), src.get()) == VERSION_1)
+				? KeyDerivationProfile.LEGACY
+				: KeyDerivationProfile.readFrom(src);
+		if(!src.hasRemaining()) {
+			throw new EOFException("header");
+		}
+		byte[] iv = new byte[src.get() & 0xFF];
+		if(src.remaining() < iv.length) {
+			throw new EOFException("iv");
+		}
+		src.get(iv);
+		return new CipherHeader(profile, iv);
+	}
+
+	public static CipherHeader readFrom(InputStream in) throws IOException {
+		DataInputStream din = new DataInputStream(in);
+		KeyDerivationProfile profile = KeyDerivationProfile.LEGACY;
+		if(checkPrefix(din.readInt(), din.readByte()) != VERSION_1) {
+			byte[] encoded = new byte[KeyDerivationProfile.ENCODED_LENGTH];
+			din.readFully(encoded);
+			profile = KeyDerivationProfile.readFrom(ByteBuffer.wrap(encoded));
+		}
+		byte[] iv = new byte[din.readUnsignedByte()];
+		din.readFully(iv);
+		return new CipherHeader(profile, iv);
+	}
+
+	public static CipherHeader readFrom(ReadableByteChannel in) throws IOException {
+		ByteBuffer prefix = readFully(in, ByteBuffer.allocate(PREFIX_LENGTH));
+		KeyDerivationProfile profile = KeyDerivationProfile.LEGACY;
+		if(checkPrefix(prefix.getInt(), prefix.get()) != VERSION_1) {
+			profile = KeyDerivationProfile.readFrom(readFully(in, ByteBuffer.allocate(KeyDerivationProfile.ENCODED_LENGTH)));
+		}
+		ByteBuffer length = readFully(in, ByteBuffer.allocate(1));
+		ByteBuffer iv = readFully(in, ByteBuffer.allocate(length.get() & 0xFF));
+		return new CipherHeader(profile, iv.array());
+	}
+
+	private static ByteBuffer readFully(ReadableByteChannel in, ByteBuffer dst) throws IOException {
+		while(dst.hasRemaining()) {
+			if(in.read(dst) < 0) {
+				throw new EOFException("header");
+			}
+		}
+		dst.flip();
+		return dst;
+	}
+
+	private static byte checkPrefix(int magic, byte version) throws IOException {
+		if(magic != MAGIC) {
+			throw new IOException("Invalid header magic: " + Integer.toHexString(magic));
+		}
+		if(version != VERSION && version != VERSION_1) {
+			throw new IOException("Unsupported header version: " + version);
+		}
+		return version;
+	}
+}
@@ -0,0 +1,153 @@
+package net.apercova.crypto.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * {@link ReadableByteChannel} que transforma el contenido leído del canal origen
+ * mediante {@link Cipher#update(ByteBuffer, ByteBuffer)}.
+ * El bloque final se procesa al alcanzar el fin del canal origen.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando mediciones {@link CryptoMetrics} al finalizar o cerrar
+ *
+ */
+public class DecryptingChannel implements ReadableByteChannel {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final ReadableByteChannel channel;
+	private final Cipher cipher;
+	private final ByteBuffer input;
+	private ByteBuffer output;
+	private boolean finished;
+	private boolean open = true;
+	private final CryptoMetrics metrics = CryptoMetrics.getDefault();
+	private long transformNanos;
+	private long transformed;
+	private boolean recorded;
+
+	/**
+	 * @param channel Canal origen
+	 * @param cipher {@link Cipher} inicializado
+	 */
+	public DecryptingChannel(ReadableByteChannel channel, Cipher cipher) {
+		this(channel, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param channel Canal origen
+	 * @param cipher {@link Cipher} inicializado
+	 * @param bufferSize Tamaño de buffer de lectura
+	 */
+	public DecryptingChannel(ReadableByteChannel channel, Cipher cipher, int bufferSize) {
+		if(channel == null) {
+			throw new NullPointerException("channel");
+		}
+		if(cipher == null) {
+			throw new NullPointerException("cipher");
+		}
+		if(bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize");
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.input = ByteBuffer.allocate(bufferSize);
+		this.output = ByteBuffer.allocate(cipher.getOutputSize(bufferSize));
+		this.output.flip();
+	}
+
+	public int read(ByteBuffer dst) throws IOException {
+		if(!open) {
+			throw new ClosedChannelException();
+		}
+		if(!dst.hasRemaining()) {
+			return 0;
+		}
+		while(!output.hasRemaining()) {
+			if(finished) {
+				return -1;
+			}
+			if(fill() == 0) {
+				//canal origen no bloqueante sin datos disponibles
+				return 0;
+			}
+		}
+		final int n = Math.min(dst.remaining(), output.remaining());
+		final int limit = output.limit();
+		output.limit(output.position() + n);
+		dst.put(output);
+		output.limit(limit);
+		return n;
+	}
+
+	/**
+	 * Lee y transforma el siguiente bloque del canal origen.
+	 * @return Bytes leídos del canal origen o {@code -1} al alcanzar su fin.
+	 */
+	private int fill() throws IOException {
+		input.clear();
+		final int n = channel.read(input);
+		input.flip();
+		try {
+			if(n < 0) {
+				finished = true;
+				ensureCapacity(cipher.getOutputSize(0));
+				output.clear();
+				final long t = metrics.start();
+				cipher.doFinal(input, output);
+				transformNanos += metrics.elapsed(t);
+				recordTransform();
+			} else {
+				ensureCapacity(cipher.getOutputSize(input.remaining()));
+				output.clear();
+				final long t = metrics.start();
+				transformed += input.remaining();
+				cipher.update(input, output);
+				transformNanos += metrics.elapsed(t);
+			}
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+		output.flip();
+		return n;
+	}
+
+	public boolean isOpen() {
+		return open;
+	}
+
+	public void close() throws IOException {
+		if(!open) {
+			return;
+		}
+		open = false;
+		recordTransform();
+		channel.close();
+	}
+
+	/**
+	 * Registra una sola vez la transformación acumulada como una medición {@link Phase#TRANSFORM}.
+	 */
+	private void recordTransform() {
+		if(!recorded) {
+			recorded = true;
+			metrics.recordNanos(Operation.DECRYPT, Phase.TRANSFORM, transformNanos, transformed);
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if(output.capacity() < size) {
+			output = ByteBuffer.allocate(size);
+		}
+	}
+}
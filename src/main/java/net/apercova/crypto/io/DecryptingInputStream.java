@@ -0,0 +1,195 @@
+package net.apercova.crypto.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * {@link InputStream} que transforma el contenido leído mediante
+ * {@link Cipher#update(byte[], int, int, byte[], int)} en bloques de tamaño acotado,
+ * por lo que la memoria utilizada es constante sin importar el tamaño del contenido.
+ * El bloque final se procesa al alcanzar el fin del flujo origen.
+ * <p>
+ * A diferencia de {@link javax.crypto.CipherInputStream}, los errores de descifrado
+ * (p. ej. padding inválido) se propagan como {@link IOException}.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando mediciones {@link CryptoMetrics} al finalizar o cerrar
+ *
+ */
+public class DecryptingInputStream extends FilterInputStream {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Cipher cipher;
+	private final byte[] input;
+	private final byte[] single = new byte[1];
+	private byte[] output;
+	private int pos;
+	private int limit;
+	private boolean finished;
+	private boolean closed;
+	private final CryptoMetrics metrics = CryptoMetrics.getDefault();
+	private long transformNanos;
+	private long transformed;
+	private boolean recorded;
+
+	/**
+	 * @param in Flujo origen
+	 * @param cipher {@link Cipher} inicializado
+	 */
+	public DecryptingInputStream(InputStream in, Cipher cipher) {
+		this(in, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param in Flujo origen
+	 * @param cipher {@link Cipher} inicializado
+	 * @param bufferSize Tamaño de buffer de lectura
+	 */
+	public DecryptingInputStream(InputStream in, Cipher cipher, int bufferSize) {
+		super(in);
+		if(cipher == null) {
+			throw new NullPointerException("cipher");
+		}
+		if(bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize");
+		}
+		this.cipher = cipher;
+		this.input = new byte[bufferSize];
+		this.output = new byte[cipher.getOutputSize(bufferSize)];
+	}
+
+	@Override
+	public int read() throws IOException {
+		int n = read(single, 0, 1);
+		return n < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if((off | len | (b.length - (off + len))) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if(len == 0) {
+			return 0;
+		}
+		while(pos == limit) {
+			if(finished) {
+				return -1;
+			}
+			fill();
+		}
+		final int n = Math.min(len, limit - pos);
+		System.arraycopy(output, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	/**
+	 * Lee y transforma el siguiente bloque del flujo origen.
+	 */
+	private void fill() throws IOException {
+		pos = 0;
+		limit = 0;
+		final int n = in.read(input, 0, input.length);
+		try {
+			if(n < 0) {
+				finished = true;
+				ensureCapacity(cipher.getOutputSize(0));
+				final long t = metrics.start();
+				limit = cipher.doFinal(output, 0);
+				transformNanos += metrics.elapsed(t);
+				recordTransform();
+			} else if(n > 0) {
+				ensureCapacity(cipher.getOutputSize(n));
+				final long t = metrics.start();
+				limit = cipher.update(input, 0, n, output, 0);
+				transformNanos += metrics.elapsed(t);
+				transformed += n;
+			}
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = 0;
+		while(skipped < n) {
+			if(pos == limit) {
+				if(finished) {
+					break;
+				}
+				fill();
+				continue;
+			}
+			final int step = (int) Math.min(n - skipped, limit - pos);
+			pos += step;
+			skipped += step;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		ensureOpen();
+		return limit - pos;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		pos = limit = 0;
+		recordTransform();
+		in.close();
+	}
+
+	/**
+	 * Registra una sola vez la transformación acumulada como una medición {@link Phase#TRANSFORM}.
+	 */
+	private void recordTransform() {
+		if(!recorded) {
+			recorded = true;
+			metrics.recordNanos(Operation.DECRYPT, Phase.TRANSFORM, transformNanos, transformed);
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if(output.length < size) {
+			output = new byte[size];
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if(closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package net.apercova.crypto.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * {@link WritableByteChannel} que transforma el contenido escrito mediante
+ * {@link Cipher#update(ByteBuffer, ByteBuffer)} antes de enviarlo al canal destino.
+ * El bloque final se procesa al cerrar el canal.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando mediciones {@link CryptoMetrics} al cerrar
+ *
+ */
+public class EncryptingChannel implements WritableByteChannel {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final WritableByteChannel channel;
+	private final Cipher cipher;
+	private final int chunkSize;
+	private ByteBuffer output;
+	private boolean open = true;
+	private final CryptoMetrics metrics = CryptoMetrics.getDefault();
+	private long transformNanos;
+	private long transformed;
+
+	/**
+	 * @param channel Canal destino
+	 * @param cipher {@link Cipher} inicializado
+	 */
+	public EncryptingChannel(WritableByteChannel channel, Cipher cipher) {
+		this(channel, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param channel Canal destino
+	 * @param cipher {@link Cipher} inicializado
+	 * @param chunkSize Tamaño máximo de bloque procesado por cada {@link Cipher#update(ByteBuffer, ByteBuffer)}
+	 */
+	public EncryptingChannel(WritableByteChannel channel, Cipher cipher, int chunkSize) {
+		if(channel == null) {
+			throw new NullPointerException("channel");
+		}
+		if(cipher == null) {
+			throw new NullPointerException("cipher");
+		}
+		if(chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize");
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.chunkSize = chunkSize;
+		this.output = ByteBuffer.allocate(cipher.getOutputSize(chunkSize));
+	}
+
+	public int write(ByteBuffer src) throws IOException {
+		if(!open) {
+			throw new ClosedChannelException();
+		}
+		final int written = src.remaining();
+		final int limit = src.limit();
+		try {
+			while(src.hasRemaining()) {
+				src.limit(src.position() + Math.min(src.remaining(), chunkSize));
+				ensureCapacity(cipher.getOutputSize(src.remaining()));
+				output.clear();
+				final long t = metrics.start();
+				transformed += src.remaining();
+				cipher.update(src, output);
+				transformNanos += metrics.elapsed(t);
+				src.limit(limit);
+				drain();
+			}
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		} finally {
+			src.limit(limit);
+		}
+		return written;
+	}
+
+	public boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * Procesa el bloque final, registra la transformación completa como una
+	 * medición {@link Phase#TRANSFORM} y cierra el canal destino.
+	 */
+	public void close() throws IOException {
+		if(!open) {
+			return;
+		}
+		open = false;
+		try {
+			ensureCapacity(cipher.getOutputSize(0));
+			output.clear();
+			final long t = metrics.start();
+			cipher.doFinal(ByteBuffer.allocate(0), output);
+			metrics.recordNanos(Operation.ENCRYPT, Phase.TRANSFORM, transformNanos + metrics.elapsed(t), transformed);
+			drain();
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void drain() throws IOException {
+		output.flip();
+		while(output.hasRemaining()) {
+			channel.write(output);
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if(output.capacity() < size) {
+			output = ByteBuffer.allocate(size);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package net.apercova.crypto.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import net.apercova.crypto.metrics.CryptoMetrics;
+import net.apercova.crypto.metrics.CryptoMetrics.Operation;
+import net.apercova.crypto.metrics.CryptoMetrics.Phase;
+
+/**
+ * {@link OutputStream} que transforma el contenido escrito mediante
+ * {@link Cipher#update(byte[], int, int, byte[], int)} en bloques de tamaño acotado,
+ * por lo que la memoria utilizada es constante sin importar el tamaño del contenido.
+ * El bloque final se procesa al cerrar el flujo.
+ * <p>
+ * A diferencia de {@link javax.crypto.CipherOutputStream}, los errores de cifrado
+ * se propagan como {@link IOException}.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando mediciones {@link CryptoMetrics} al cerrar
+ *
+ */
+public class EncryptingOutputStream extends FilterOutputStream {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Cipher cipher;
+	private final int chunkSize;
+	private final byte[] single = new byte[1];
+	private byte[] output;
+	private boolean closed;
+	private final CryptoMetrics metrics = CryptoMetrics.getDefault();
+	private long transformNanos;
+	private long transformed;
+
+	/**
+	 * @param out Flujo destino
+	 * @param cipher {@link Cipher} inicializado
+	 */
+	public EncryptingOutputStream(OutputStream out, Cipher cipher) {
+		this(out, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param out Flujo destino
+	 * @param cipher {@link Cipher} inicializado
+	 * @param chunkSize Tamaño máximo de bloque procesado por cada {@link Cipher#update(byte[], int, int, byte[], int)}
+	 */
+	public EncryptingOutputStream(OutputStream out, Cipher cipher, int chunkSize) {
+		super(out);
+		if(cipher == null) {
+			throw new NullPointerException("cipher");
+		}
+		if(chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize");
+		}
+		this.cipher = cipher;
+		this.chunkSize = chunkSize;
+		this.output = new byte[cipher.getOutputSize(chunkSize)];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		single[0] = (byte) b;
+		write(single, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if((off | len | (b.length - (off + len))) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		try {
+			while(len > 0) {
+				final int n = Math.min(len, chunkSize);
+				ensureCapacity(cipher.getOutputSize(n));
+				final long t = metrics.start();
+				final int produced = cipher.update(b, off, n, output, 0);
+				transformNanos += metrics.elapsed(t);
+				transformed += n;
+				if(produced > 0) {
+					out.write(output, 0, produced);
+				}
+				off += n;
+				len -= n;
+			}
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Envía al flujo destino el contenido ya transformado.
+	 * Un bloque incompleto permanece en {@link Cipher} hasta {@link #close()}.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		out.flush();
+	}
+
+	/**
+	 * Procesa el bloque final, registra la transformación completa como una
+	 * medición {@link Phase#TRANSFORM} y cierra el flujo destino.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		try {
+			ensureCapacity(cipher.getOutputSize(0));
+			final long t = metrics.start();
+			final int produced = cipher.doFinal(output, 0);
+			metrics.recordNanos(Operation.ENCRYPT, Phase.TRANSFORM, transformNanos + metrics.elapsed(t), transformed);
+			if(produced > 0) {
+				out.write(output, 0, produced);
+			}
+			out.flush();
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if(output.length < size) {
+			output = new byte[size];
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if(closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package net.apercova.crypto.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.apercova.crypto.SecretKeyCache;
+
+/**
+ * Mediciones de operaciones criptográficas por operación y fase: número de
+ * operaciones, bytes procesados e histogramas de latencia.
+ * <p>
+ * El registro no asigna memoria y, deshabilitado, se reduce a la lectura de un
+ * campo {@code volatile}. Uso en código instrumentado:
+ * </p>
+ * <pre>
+ * {@code
+ *  CryptoMetrics metrics = CryptoMetrics.getDefault();
+ *  long t = metrics.start();
+ *  cipher.init(...);
+ *  t = metrics.record(Operation.ENCRYPT, Phase.CIPHER_INIT, t, 0);
+ *  byte[] out = cipher.doFinal(in);
+ *  metrics.record(Operation.ENCRYPT, Phase.TRANSFORM, t, in.length);
+ * }
+ * </pre>
+ * Las transformaciones por flujo ({@code net.apercova.crypto.io}) acumulan su
+ * tiempo y se registran una sola vez al cerrar el flujo mediante
+ * {@link #recordNanos(Operation, Phase, long, long)}.
+ * Las mediciones se exponen por JMX mediante {@link #registerMBean()} y a
+ * receptores registrados con {@link #addListener(CryptoMetricsListener)}.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando acumuladores sin contención y mediciones de flujos
+ *
+ */
+public class CryptoMetrics implements CryptoMetricsMXBean {
+
+	/**
+	 * Operación medida.
+	 */
+	public enum Operation {
+		ENCRYPT, DECRYPT, DERIVE
+	}
+
+	/**
+	 * Fase de operación.
+	 */
+	public enum Phase {
+		KEY_DERIVATION, CIPHER_INIT, TRANSFORM
+	}
+
+	public static final String OBJECT_NAME = "net.apercova.crypto:type=CryptoMetrics";
+
+	private static final int OPERATIONS = Operation.values().length;
+	private static final int PHASES = Phase.values().length;
+	private static final CryptoMetrics DEFAULT = new CryptoMetrics(SecretKeyCache.getDefault());
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS * PHASES];
+	private final LongAdder[] bytes = new LongAdder[OPERATIONS * PHASES];
+	private final List<CryptoMetricsListener> listeners = new CopyOnWriteArrayList<CryptoMetricsListener>();
+	private final SecretKeyCache keyCache;
+	private volatile boolean enabled = true;
+	private volatile boolean notify;
+
+	/**
+	 * @param keyCache Cache de llaves cuyas estadísticas se reportan. Puede ser {@code null}.
+	 */
+	public CryptoMetrics(SecretKeyCache keyCache) {
+		this.keyCache = keyCache;
+		for(int i = 0; i < histograms.length; i++) {
+			histograms[i] = new LatencyHistogram();
+			bytes[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Mediciones compartidas de las implementaciones de {@code net.apercova.crypto}.
+	 * @return Instancia compartida.
+	 */
+	public static CryptoMetrics getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Registra la instancia compartida en el {@link MBeanServer} de la plataforma
+	 * como {@value #OBJECT_NAME}. No falla si ya se encuentra registrada.
+	 * @throws JMException Si no es posible registrar el MBean.
+	 */
+	public static synchronized void registerMBean() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if(!server.isRegistered(name)) {
+			server.registerMBean(DEFAULT, name);
+		}
+	}
+
+	/**
+	 * Inicia una medición.
+	 * @return Marca de tiempo en nanosegundos, o {@code 0} si las mediciones están deshabilitadas.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Registra una fase iniciada en {@code start}.
+	 * @param operation Operación
+	 * @param phase Fase
+	 * @param start Marca devuelta por {@link #start()} o por un {@code record} previo.
+	 * @param byteCount Bytes procesados en la fase.
+	 * @return Marca de tiempo actual para encadenar la siguiente fase, o {@code 0} si están deshabilitadas.
+	 */
+	public long record(Operation operation, Phase phase, long start, long byteCount) {
+		if(!enabled || start == 0L) {
+			return 0L;
+		}
+		final long now = System.nanoTime();
+		recordNanos(operation, phase, now - start, byteCount);
+		return now;
+	}
+
+	/**
+	 * Tiempo transcurrido desde una marca.
+	 * @param start Marca devuelta por {@link #start()}.
+	 * @return Nanosegundos transcurridos, o {@code 0} si la marca es {@code 0}.
+	 */
+	public long elapsed(long start) {
+		return start == 0L ? 0L : System.nanoTime() - start;
+	}
+
+	/**
+	 * Registra una fase cuya duración se midió por separado, p. ej. acumulada
+	 * a lo largo de un flujo.
+	 * @param operation Operación
+	 * @param phase Fase
+	 * @param nanos Duración en nanosegundos.
+	 * @param byteCount Bytes procesados en la fase.
+	 */
+	public void recordNanos(Operation operation, Phase phase, long nanos, long byteCount) {
+		if(!enabled) {
+			return;
+		}
+		final int index = operation.ordinal() * PHASES + phase.ordinal();
+		histograms[index].record(nanos);
+		if(byteCount > 0) {
+			bytes[index].add(byteCount);
+		}
+		if(notify) {
+			for(CryptoMetricsListener listener: listeners) {
+				listener.onPhase(operation, phase, nanos, byteCount);
+			}
+		}
+	}
+
+	public void addListener(CryptoMetricsListener listener) {
+		if(listener == null) {
+			throw new NullPointerException("listener");
+		}
+		listeners.add(listener);
+		notify = true;
+	}
+
+	public void removeListener(CryptoMetricsListener listener) {
+		listeners.remove(listener);
+		notify = !listeners.isEmpty();
+	}
+
+	/**
+	 * Histograma de latencias de una fase.
+	 * @param operation Operación
+	 * @param phase Fase
+	 * @return Histograma en nanosegundos.
+	 */
+	public LatencyHistogram getHistogram(Operation operation, Phase phase) {
+		return histograms[operation.ordinal() * PHASES + phase.ordinal()];
+	}
+
+	/**
+	 * Bytes procesados en una fase.
+	 * @param operation Operación
+	 * @param phase Fase
+	 * @return Bytes procesados.
+	 */
+	public long getBytes(Operation operation, Phase phase) {
+		return bytes[operation.ordinal() * PHASES + phase.ordinal()].sum();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getEncryptCount() {
+		return getHistogram(Operation.ENCRYPT, Phase.TRANSFORM).getCount();
+	}
+
+	public long getDecryptCount() {
+		return getHistogram(Operation.DECRYPT, Phase.TRANSFORM).getCount();
+	}
+
+	public long getBytesEncrypted() {
+		return getBytes(Operation.ENCRYPT, Phase.TRANSFORM);
+	}
+
+	public long getBytesDecrypted() {
+		return getBytes(Operation.DECRYPT, Phase.TRANSFORM);
+	}
+
+	public long getKeyDerivationCount() {
+		return getHistogram(Operation.DERIVE, Phase.KEY_DERIVATION).getCount();
+	}
+
+	public double getKeyDerivationMean() {
+		return getHistogram(Operation.DERIVE, Phase.KEY_DERIVATION).getMean();
+	}
+
+	public long getKeyDerivationP99() {
+		return getHistogram(Operation.DERIVE, Phase.KEY_DERIVATION).getValueAtPercentile(99d);
+	}
+
+	public long getCipherInitP50() {
+		return Math.max(getHistogram(Operation.ENCRYPT, Phase.CIPHER_INIT).getValueAtPercentile(50d),
+				getHistogram(Operation.DECRYPT, Phase.CIPHER_INIT).getValueAtPercentile(50d));
+	}
+
+	public long getCipherInitP99() {
+		return Math.max(getHistogram(Operation.ENCRYPT, Phase.CIPHER_INIT).getValueAtPercentile(99d),
+				getHistogram(Operation.DECRYPT, Phase.CIPHER_INIT).getValueAtPercentile(99d));
+	}
+
+	public long getEncryptTransformP50() {
+		return getHistogram(Operation.ENCRYPT, Phase.TRANSFORM).getValueAtPercentile(50d);
+	}
+
+	public long getEncryptTransformP99() {
+		return getHistogram(Operation.ENCRYPT, Phase.TRANSFORM).getValueAtPercentile(99d);
+	}
+
+	public long getDecryptTransformP50() {
+		return getHistogram(Operation.DECRYPT, Phase.TRANSFORM).getValueAtPercentile(50d);
+	}
+
+	public long getDecryptTransformP99() {
+		return getHistogram(Operation.DECRYPT, Phase.TRANSFORM).getValueAtPercentile(99d);
+	}
+
+	public long getKeyCacheHitCount() {
+		return keyCache == null ? 0L : keyCache.getHitCount();
+	}
+
+	public long getKeyCacheMissCount() {
+		return keyCache == null ? 0L : keyCache.getMissCount();
+	}
+
+	public double getKeyCacheHitRate() {
+		final long hits = getKeyCacheHitCount();
+		final long total = hits + getKeyCacheMissCount();
+		return total == 0 ? 0d : (double) hits / total;
+	}
+
+	/**
+	 * Elimina las mediciones registradas.
+	 */
+	public void reset() {
+		for(int i = 0; i < histograms.length; i++) {
+			histograms[i].reset();
+			bytes[i].reset();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package net.apercova.crypto.metrics;
+
+/**
+ * Receptor de mediciones de operaciones criptográficas.
+ * Se invoca en el hilo que ejecuta la operación, por lo que debe ser breve
+ * y no bloquear.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public interface CryptoMetricsListener {
+
+	/**
+	 * Notifica la medición de una fase de operación.
+	 * @param operation Operación
+	 * @param phase Fase
+	 * @param nanos Duración en nanosegundos
+	 * @param bytes Bytes procesados en la fase
+	 */
+	void onPhase(CryptoMetrics.Operation operation, CryptoMetrics.Phase phase, long nanos, long bytes);
+}
@@ -0,0 +1,49 @@
+package net.apercova.crypto.metrics;
+
+/**
+ * Interfaz JMX de {@link CryptoMetrics}.
+ * Latencias en nanosegundos.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public interface CryptoMetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	long getEncryptCount();
+
+	long getDecryptCount();
+
+	long getBytesEncrypted();
+
+	long getBytesDecrypted();
+
+	long getKeyDerivationCount();
+
+	double getKeyDerivationMean();
+
+	long getKeyDerivationP99();
+
+	long getCipherInitP50();
+
+	long getCipherInitP99();
+
+	long getEncryptTransformP50();
+
+	long getEncryptTransformP99();
+
+	long getDecryptTransformP50();
+
+	long getDecryptTransformP99();
+
+	long getKeyCacheHitCount();
+
+	long getKeyCacheMissCount();
+
+	double getKeyCacheHitRate();
+
+	void reset();
+}
@@ -0,0 +1,115 @@
+package net.apercova.crypto.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias log-lineal, al estilo de HdrHistogram, seguro para hilos
+ * y sin asignación de memoria al registrar.
+ * <p>
+ * Los valores se agrupan por potencia de dos con 16 sub-intervalos cada una,
+ * por lo que el error relativo de los percentiles es menor a 6.25%.
+ * </p>
+ * <p>
+ * El número de registros y la suma se acumulan en {@link LongAdder} y el máximo
+ * en un {@link LongAccumulator}, que sólo escribe cuando el valor lo supera, de
+ * modo que hilos concurrentes no compiten por la misma línea de caché.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando acumuladores sin contención
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int LINEAR_COUNT = SUB_COUNT << 1;
+	private static final int BUCKETS = LINEAR_COUNT + (63 - SUB_BITS - 1) * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * Registra un valor.
+	 * @param value Valor, p. ej. nanosegundos. Valores negativos se registran como 0.
+	 */
+	public void record(long value) {
+		if(value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(indexOf(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	static int indexOf(long value) {
+		if(value < LINEAR_COUNT) {
+			return (int) value;
+		}
+		final int shift = 64 - Long.numberOfLeadingZeros(value) - (SUB_BITS + 1);
+		return LINEAR_COUNT + (shift - 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+	}
+
+	/**
+	 * Valor más alto representado por un intervalo.
+	 */
+	static long highestValueOf(int index) {
+		if(index < LINEAR_COUNT) {
+			return index;
+		}
+		final int shift = (index - LINEAR_COUNT) / SUB_COUNT + 1;
+		final long sub = (index - LINEAR_COUNT) % SUB_COUNT + SUB_COUNT;
+		return ((sub + 1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		final long n = getCount();
+		return n == 0 ? 0d : (double) sum.sum() / n;
+	}
+
+	/**
+	 * Valor del percentil indicado.
+	 * @param percentile Percentil entre 0 y 100.
+	 * @return Cota superior del intervalo que contiene el percentil, o 0 sin registros.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final long count = getCount();
+		if(count == 0) {
+			return 0L;
+		}
+		final long target = Math.max(1L, (long) Math.ceil(Math.min(100d, Math.max(0d, percentile)) / 100d * count));
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if(seen >= target) {
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Elimina los registros. No es atómico respecto a registros concurrentes.
+	 */
+	public void reset() {
+		for(int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0L);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+}
@@ -0,0 +1,204 @@
+package net.apercova.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy view of a text line held in a {@link ByteBuffer}, along with its
+ * absolute line number and byte position in the source.
+ * <p>
+ * Bytes are decoded lazily. When the line is ASCII (checked word-at-a-time
+ * on first use) or the charset is ISO-8859-1, the {@link CharSequence} view
+ * maps each byte to one char without decoding. Otherwise the line is decoded
+ * with the source charset on first access to its chars and the result is
+ * cached.
+ * Views passed to visitors may be reused for the next line; call
+ * {@link #toString()} or {@link #copy()} to retain one.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Adding lazy decoding with ASCII fast path
+ */
+public final class ByteLine implements CharSequence {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte ASCII = 1;
+    private static final byte DECODE = 2;
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private long lineNumber;
+    private long position;
+    private Charset charset;
+    private byte content;
+    private String decoded;
+
+    ByteLine() {
+    }
+
+    ByteLine(ByteBuffer buffer, int offset, int length, long lineNumber, long position, Charset charset) {
+        set(buffer, offset, length, lineNumber, position, charset);
+    }
+
+    ByteLine set(ByteBuffer buffer, int offset, int length, long lineNumber, long position, Charset charset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.lineNumber = lineNumber;
+        this.position = position;
+        this.charset = charset;
+        this.content = (charset == StandardCharsets.ISO_8859_1) ? ASCII : UNKNOWN;
+        this.decoded = null;
+        return this;
+    }
+
+    /**
+     * @return Line number, starting at 1.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return Byte position of the line within the source.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return Line length in bytes, excluding the line terminator.
+     */
+    public int byteLength() {
+        return length;
+    }
+
+    /**
+     * @param index byte index within the line
+     * @return Byte at {@code index}
+     */
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return buffer.get(offset + index);
+    }
+
+    /**
+     * @return {@code true} if chars map one to one to bytes, without decoding.
+     */
+    public boolean isAscii() {
+        if (content == UNKNOWN) {
+            content = ByteScanner.isAscii(buffer, offset, offset + length) ? ASCII : DECODE;
+        }
+        return content == ASCII;
+    }
+
+    private String decoded() {
+        if (decoded == null) {
+            decoded = decode(charset);
+        }
+        return decoded;
+    }
+
+    /**
+     * @return Line length in chars.
+     */
+    public int length() {
+        return isAscii() ? length : decoded().length();
+    }
+
+    public char charAt(int index) {
+        return isAscii() ? (char) (byteAt(index) & 0xFF) : decoded().charAt(index);
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        return isAscii() ? slice(start, end) : decoded().subSequence(start, end);
+    }
+
+    /**
+     * @param b byte to look for
+     * @param fromIndex start byte index
+     * @return Byte index of the first occurrence of {@code b} from {@code fromIndex}, or {@code -1}.
+     */
+    public int indexOf(byte b, int fromIndex) {
+        final int i = ByteScanner.indexOf(buffer, offset + Math.max(fromIndex, 0), offset + length, b);
+        return (i < 0) ? -1 : i - offset;
+    }
+
+    /**
+     * Returns a view of a byte range of this line sharing the same buffer.
+     * @param start start byte index, inclusive
+     * @param end end byte index, exclusive
+     * @return Byte range view
+     */
+    public ByteLine slice(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+        }
+        ByteLine slice = new ByteLine(buffer, offset + start, end - start, lineNumber, position + start, charset);
+        if (content == ASCII) {
+            slice.content = ASCII;
+        }
+        return slice;
+    }
+
+    /**
+     * @return Read-only buffer over the line bytes.
+     */
+    public ByteBuffer asByteBuffer() {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies the line bytes.
+     * @param dst target array
+     * @param dstOffset target offset
+     * @return Number of bytes copied
+     */
+    public int copyTo(byte[] dst, int dstOffset) {
+        if (dstOffset < 0 || dstOffset > dst.length - length) {
+            throw new IndexOutOfBoundsException("dstOffset: " + dstOffset);
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(dst, dstOffset, length);
+        return length;
+    }
+
+    /**
+     * @return View over a private copy of the line bytes, safe to retain.
+     */
+    public ByteLine copy() {
+        byte[] bytes = new byte[length];
+        copyTo(bytes, 0);
+        ByteLine copy = new ByteLine(ByteBuffer.wrap(bytes), 0, length, lineNumber, position, charset);
+        copy.content = content;
+        copy.decoded = decoded;
+        return copy;
+    }
+
+    private String decode(Charset charset) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, charset);
+        }
+        byte[] bytes = new byte[length];
+        copyTo(bytes, 0);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * @return Line decoded with the source charset.
+     */
+    @Override
+    public String toString() {
+        if (decoded != null) {
+            return decoded;
+        }
+        return isAscii() ? decode(StandardCharsets.ISO_8859_1) : decoded();
+    }
+}
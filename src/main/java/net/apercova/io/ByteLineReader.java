@@ -0,0 +1,170 @@
+package net.apercova.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Byte-level line reader, a single-pass alternative to
+ * {@link IterableLineNumberReader} for ASCII-compatible input such as UTF-8.
+ * <p>
+ * Bytes are read into a {@link ByteBuffer} and split at {@code \n} with a
+ * word-at-a-time search, without going through a {@link java.io.Reader}
+ * stack. Lines are handed out as reusable {@link ByteLine} views that decode
+ * only when their chars are requested, mapping ASCII lines directly and
+ * decoding other lines with the charset. Lines end at {@code \n} or
+ * {@code \r\n}.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  try (ByteLineReader reader = new ByteLineReader(in)) {
+ *      ByteLine line;
+ *      while ((line = reader.readLine()) != null) {
+ *          if (line.indexOf((byte) 'E', 0) == 0) {
+ *              System.out.printf("#[%d]-%s%n", line.getLineNumber(), line);
+ *          }
+ *      }
+ *  }}
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public class ByteLineReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private final ReadableByteChannel in;
+    private final Charset charset;
+    private final ByteLine line = new ByteLine();
+    private ByteBuffer buffer;
+    private long position;
+    private long lineNumber;
+    private boolean eof;
+
+    /**
+     * Reads UTF-8 lines.
+     * @param in Byte stream
+     */
+    public ByteLineReader(InputStream in) {
+        this(Channels.newChannel(in), StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param in Blocking byte channel
+     * @param charset Input charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @param bufferSize Initial buffer size; grows to hold the longest line.
+     */
+    public ByteLineReader(ReadableByteChannel in, Charset charset, int bufferSize) {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize");
+        }
+        this.in = in;
+        this.charset = charset;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next line.
+     * @return Line view, reused by the next call; {@code null} at end of input.
+     * @throws IOException If an I/O error occurs.
+     */
+    public ByteLine readLine() throws IOException {
+        int from = buffer.position();
+        while (true) {
+            final int start = buffer.position();
+            final int limit = buffer.limit();
+            final int i = ByteScanner.indexOf(buffer, from, limit, (byte) '\n');
+            if (i >= 0) {
+                buffer.position(i + 1);
+                return emit(start, i, i + 1 - start);
+            }
+            if (eof) {
+                if (start == limit) {
+                    return null;
+                }
+                buffer.position(limit);
+                return emit(start, limit, limit - start);
+            }
+            from = limit - start;
+            fill();
+            //resume the search after the bytes already scanned
+            from += buffer.position();
+        }
+    }
+
+    /**
+     * Visits every remaining line.
+     * @param action Line action; the {@link ByteLine} is reused for the next line.
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     */
+    public long forEachLine(Consumer<? super ByteLine> action) throws IOException {
+        if (action == null) {
+            throw new NullPointerException("action");
+        }
+        long count = 0;
+        ByteLine next;
+        while ((next = readLine()) != null) {
+            action.accept(next);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of lines read.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private ByteLine emit(int start, int end, int consumed) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        long linePosition = position;
+        position += consumed;
+        return line.set(buffer, start, end - start, ++lineNumber, linePosition, charset);
+    }
+
+    /**
+     * Reads more bytes, keeping the current partial line and growing the
+     * buffer if the line fills it.
+     */
+    private void fill() throws IOException {
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+            grown.put(buffer);
+            buffer = grown;
+        } else {
+            buffer.compact();
+        }
+        int n;
+        do {
+            n = in.read(buffer);
+        } while (n == 0 && buffer.hasRemaining());
+        if (n < 0) {
+            eof = true;
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
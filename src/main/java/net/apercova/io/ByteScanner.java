@@ -0,0 +1,71 @@
+package net.apercova.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Word-at-a-time (SWAR) byte searches over {@link ByteBuffer}s: eight bytes
+ * are tested per {@link ByteBuffer#getLong(int)} instead of one per
+ * {@link ByteBuffer#get(int)}. Buffers are addressed by absolute index;
+ * positions and limits are left untouched.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+final class ByteScanner {
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long ONES = 0x0101010101010101L;
+
+    private ByteScanner() {
+    }
+
+    /**
+     * Finds a byte.
+     * @param buffer Buffer to search
+     * @param from Start index, inclusive
+     * @param to End index, exclusive
+     * @param b Byte to find
+     * @return Index of the first {@code b} in range, or {@code -1}.
+     */
+    static int indexOf(ByteBuffer buffer, int from, int to, byte b) {
+        final long pattern = (b & 0xFFL) * ONES;
+        final boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        int i = from;
+        for (final int end = to - 7; i < end; i += 8) {
+            final long x = buffer.getLong(i) ^ pattern;
+            //high bit set exactly on zero bytes, no false positives
+            final long zeros = ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+            if (zeros != 0) {
+                return i + ((littleEndian ? Long.numberOfTrailingZeros(zeros) : Long.numberOfLeadingZeros(zeros)) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param buffer Buffer to test
+     * @param from Start index, inclusive
+     * @param to End index, exclusive
+     * @return {@code true} if every byte in range is 7-bit ASCII.
+     */
+    static boolean isAscii(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        for (final int end = to - 7; i < end; i += 8) {
+            if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
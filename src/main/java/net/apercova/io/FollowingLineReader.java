@@ -0,0 +1,374 @@
+package net.apercova.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a growing text file, like {@code tail -F}.
+ * <p>
+ * Only complete lines (ended by {@code \n} or {@code \r\n}) are reported; a
+ * partial last line is held until its terminator is appended. When no data
+ * is available the reader waits on a {@link WatchService} for the parent
+ * directory, falling back to polling. A file truncated below the read
+ * position is read again from its start; a rotated file (a new file at the
+ * same path) is read from its start once the old one is exhausted, dropping
+ * an unterminated last line of the old file. Line numbers restart at 1 in
+ * both cases.
+ * </p>
+ * <p>
+ * {@link #checkpoint()} returns the position after the last reported line,
+ * which can be persisted with {@link LineCheckpoint#save(Path)} so that a
+ * restarted consumer resumes without re-reading the file.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  try (FollowingLineReader reader = new FollowingLineReader(log, UTF_8, LineCheckpoint.load(state))) {
+ *      reader.follow((line, lineNumber) -> {
+ *          process(line);
+ *          return true;
+ *      });
+ *  }}
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Adding word-at-a-time newline search
+ */
+public class FollowingLineReader implements Closeable {
+
+    public static final long DEFAULT_POLL_MILLIS = 500L;
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private static final int NONE = 0;
+    private static final int CONTINUE = 1;
+    private static final int STOP = 2;
+
+    private final Path path;
+    private final long pollMillis;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    private byte[] pending = new byte[256];
+    private int pendingLength;
+    private CharBuffer chars = CharBuffer.allocate(256);
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+    private long committed;
+    private long lineNumber;
+
+    private WatchService watcher;
+    private volatile boolean closed;
+
+    /**
+     * Follows a UTF-8 file from its start.
+     * @param path File path
+     * @throws IOException If the file cannot be opened.
+     */
+    public FollowingLineReader(Path path) throws IOException {
+        this(path, StandardCharsets.UTF_8, LineCheckpoint.START);
+    }
+
+    /**
+     * @param path File path
+     * @param charset File charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @param checkpoint Position to resume from.
+     * @throws IOException If the file cannot be opened.
+     */
+    public FollowingLineReader(Path path, Charset charset, LineCheckpoint checkpoint) throws IOException {
+        this(path, charset, checkpoint, DEFAULT_POLL_MILLIS);
+    }
+
+    /**
+     * @param path File path
+     * @param charset File charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @param checkpoint Position to resume from.
+     * @param pollMillis Maximum wait between checks for appended data.
+     * @throws IOException If the file cannot be opened.
+     */
+    public FollowingLineReader(Path path, Charset charset, LineCheckpoint checkpoint, long pollMillis) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("path");
+        }
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        if (checkpoint == null) {
+            throw new NullPointerException("checkpoint");
+        }
+        if (pollMillis <= 0) {
+            throw new IllegalArgumentException("pollMillis");
+        }
+        this.path = path;
+        this.pollMillis = pollMillis;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer.flip();
+        open();
+        //resume unless the file was rotated or truncated since the checkpoint
+        String key = (fileKey == null) ? null : fileKey.toString();
+        boolean sameFile = checkpoint.getFileKey() == null || key == null || checkpoint.getFileKey().equals(key);
+        if (sameFile && checkpoint.getPosition() <= channel.size()) {
+            position = committed = checkpoint.getPosition();
+            lineNumber = checkpoint.getLineNumber();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        position = committed = lineNumber = 0;
+        pendingLength = 0;
+        buffer.clear().flip();
+    }
+
+    /**
+     * Position after the last reported line.
+     * @return Checkpoint
+     */
+    public synchronized LineCheckpoint checkpoint() {
+        return new LineCheckpoint(committed, lineNumber, (fileKey == null) ? null : fileKey.toString());
+    }
+
+    /**
+     * Reports lines as they are appended until the visitor stops, the reader is
+     * closed or the thread is interrupted.
+     * @param visitor Line visitor
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     * @throws InterruptedException If interrupted while waiting for data.
+     */
+    public long follow(LineVisitor visitor) throws IOException, InterruptedException {
+        if (visitor == null) {
+            throw new NullPointerException("visitor");
+        }
+        long count = 0;
+        while (!closed) {
+            int r = next(visitor);
+            if (r > 0) {
+                count++;
+                if (r == STOP) {
+                    break;
+                }
+            } else {
+                await(pollMillis);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reports lines already available without waiting.
+     * @param visitor Line visitor
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     */
+    public long drain(LineVisitor visitor) throws IOException {
+        if (visitor == null) {
+            throw new NullPointerException("visitor");
+        }
+        long count = 0;
+        int r;
+        while (!closed && (r = next(visitor)) > 0) {
+            count++;
+            if (r == STOP) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Waits for the next line.
+     * @param timeout Maximum time to wait
+     * @param unit Time unit
+     * @return Next line, or {@code null} if none was appended in time.
+     * @throws IOException If an I/O error occurs.
+     * @throws InterruptedException If interrupted while waiting for data.
+     */
+    public NumberedLine readLine(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        final NumberedLine[] line = new NumberedLine[1];
+        final LineVisitor capture = new LineVisitor() {
+            public boolean visitLine(CharBuffer chars, long lineNumber) {
+                line[0] = new NumberedLine(lineNumber, chars.toString());
+                return false;
+            }
+        };
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!closed) {
+            if (next(capture) > 0) {
+                return line[0];
+            }
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) {
+                break;
+            }
+            await(Math.min(left, pollMillis));
+        }
+        return null;
+    }
+
+    /**
+     * Reports the next complete line if available.
+     * @return {@link #NONE}, or {@link #CONTINUE}/{@link #STOP} as returned by the visitor.
+     */
+    private synchronized int next(LineVisitor visitor) throws IOException {
+        while (true) {
+            while (buffer.hasRemaining()) {
+                final int start = buffer.position();
+                final int limit = buffer.limit();
+                int i = ByteScanner.indexOf(buffer, start, limit, (byte) '\n');
+                if (i < 0) {
+                    i = limit;
+                }
+                append(start, i);
+                if (i < limit) {
+                    buffer.position(i + 1);
+                    committed = position - buffer.remaining();
+                    return emit(visitor);
+                }
+                buffer.position(limit);
+            }
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            buffer.flip();
+            if (n > 0) {
+                position += n;
+            } else if (!rotated(visitor)) {
+                return NONE;
+            }
+        }
+    }
+
+    /**
+     * Checks for truncation or rotation once the current file is exhausted.
+     * @return {@code true} if the reader switched to the start of a file.
+     */
+    private boolean rotated(LineVisitor visitor) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            //rotated away, new file not created yet
+            return false;
+        }
+        Object key = attributes.fileKey();
+        if (key != null && fileKey != null && !key.equals(fileKey)) {
+            channel.close();
+            open();
+            return true;
+        }
+        if (channel.size() < position) {
+            position = committed = lineNumber = 0;
+            pendingLength = 0;
+            return true;
+        }
+        return false;
+    }
+
+    private void append(int from, int to) {
+        final int len = to - from;
+        if (pendingLength + len > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + len));
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(from);
+        view.get(pending, pendingLength, len);
+        pendingLength += len;
+    }
+
+    private int emit(LineVisitor visitor) throws IOException {
+        int len = pendingLength;
+        if (len > 0 && pending[len - 1] == '\r') {
+            len--;
+        }
+        pendingLength = 0;
+        decoder.reset();
+        chars.clear();
+        ByteBuffer in = ByteBuffer.wrap(pending, 0, len);
+        CoderResult result = decoder.decode(in, chars, true);
+        while (result.isOverflow()) {
+            grow();
+            result = decoder.decode(in, chars, true);
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            grow();
+        }
+        chars.flip();
+        lineNumber++;
+        return visitor.visitLine(chars, lineNumber) ? CONTINUE : STOP;
+    }
+
+    private void grow() {
+        chars.flip();
+        chars = CharBuffer.allocate(chars.capacity() * 2).put(chars);
+    }
+
+    /**
+     * Waits for a change in the parent directory or the poll interval.
+     */
+    private void await(long millis) throws IOException, InterruptedException {
+        if (watcher == null) {
+            Path dir = path.toAbsolutePath().getParent();
+            try {
+                watcher = dir.getFileSystem().newWatchService();
+                dir.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            } catch (UnsupportedOperationException e) {
+                watcher = null;
+            }
+        }
+        if (watcher == null) {
+            Thread.sleep(millis);
+            return;
+        }
+        try {
+            WatchKey key = watcher.poll(millis, TimeUnit.MILLISECONDS);
+            if (key != null) {
+                key.pollEvents();
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            //closed concurrently
+        }
+    }
+
+    /**
+     * Stops {@link #follow(LineVisitor)} and releases the file.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            if (watcher != null) {
+                watcher.close();
+            }
+        } finally {
+            synchronized (this) {
+                channel.close();
+            }
+        }
+    }
+}
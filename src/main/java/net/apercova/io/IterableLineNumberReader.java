@@ -1,11 +1,28 @@
 package net.apercova.io;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Allows to iterate over a {@link LineNumberReader} while keep line
@@ -13,6 +30,12 @@ import java.util.List;
  * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
  * @version 1.0 2017.08
  * @version 1.1 2018.01 Adding {@link #hasMoreLines()} and {@link #getNextLine()}
+ * @version 1.2 2026.10 Adding {@link #forEachLine(LineVisitor)} and decoding line visitor
+ * @version 1.3 2026.10 Fixing {@link #hasNext()} look-ahead, adding {@link #lines()} and {@link #numberedLines()}
+ * @version 1.4 2026.10 Adding bounded {@link ReadErrorPolicy}
+ * @version 1.5 2026.10 Adding {@link #open(Path, Charset)} with parallel gzip inflation
+ * @version 1.6 2026.10 Rewinding failed reads before retrying
+ * @version 1.7 2026.10 Marking only for retrying error policies, within the buffer size
  * 
  * 
  * <pre>
@@ -28,29 +51,78 @@ import java.util.List;
  */
 public class IterableLineNumberReader extends LineNumberReader implements Iterator<String>, Iterable<String>{
 
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Smallest decoding buffer, room for any partially read encoded char.
+     */
+    private static final int MIN_DECODE_BUFFER_SIZE = 16;
+
+    /**
+     * Batch size increment and limit for {@link Spliterator#trySplit()}.
+     */
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    /**
+     * Largest read-ahead limit of the mark set before each line. The limit
+     * actually used is the smaller of this value and the buffer size given to
+     * the constructor, so marking never grows the {@link java.io.BufferedReader}
+     * buffer.
+     */
+    public static final int RETRY_READ_AHEAD_LIMIT = DEFAULT_BUFFER_SIZE;
+
     protected boolean readForward;
     protected String nextLine;
-    protected List<Throwable> suppressed;
+    protected ReadErrorPolicy errorPolicy;
+    private final int readAheadLimit;
 
     public IterableLineNumberReader(Reader in) {
-        super(in);
-        readForward = true;
-        suppressed = new LinkedList<Throwable>();
+        this(in, DEFAULT_BUFFER_SIZE);
     }
 
     public IterableLineNumberReader(Reader in, int sz) {
         super(in, sz);
         readForward = true;
-        suppressed = new LinkedList<Throwable>();
+        readAheadLimit = Math.min(RETRY_READ_AHEAD_LIMIT, sz);
+        errorPolicy = ReadErrorPolicy.record(ReadErrorPolicy.DEFAULT_CAPACITY, true);
     }
 
     /**
      * Exception list caused by reading errors when iterating.
      * {@link Iterator#next()} does not declare a {@code throws} statement.
-     * @return Suppressed exceptions list.
+     * Only the most recent errors kept by the error policy are listed; see
+     * {@link #getErrorCount()} for the total.
+     * @return Suppressed exceptions list, oldest first.
      */
     public List<Throwable> getSuppressed() {
-        return suppressed;
+        return errorPolicy.getErrors();
+    }
+
+    /**
+     * @return Total number of reading errors when iterating.
+     */
+    public long getErrorCount() {
+        return errorPolicy.getErrorCount();
+    }
+
+    /**
+     * @return Policy applied to reading errors when iterating.
+     */
+    public ReadErrorPolicy getErrorPolicy() {
+        return errorPolicy;
+    }
+
+    /**
+     * Sets the policy applied to reading errors when iterating. Defaults to
+     * keeping the last {@value ReadErrorPolicy#DEFAULT_CAPACITY} errors.
+     * @param errorPolicy Error policy
+     */
+    public void setErrorPolicy(ReadErrorPolicy errorPolicy) {
+        if (errorPolicy == null) {
+            throw new NullPointerException("errorPolicy");
+        }
+        this.errorPolicy = errorPolicy;
     }
 
     /**
@@ -63,13 +135,44 @@ public class IterableLineNumberReader extends LineNumberReader implements Iterat
 
     /**
      * Looks up next text line within underlying reader.
+     * When the error policy may retry, the read position is marked before
+     * each line, so a failed read is rewound and can be retried without
+     * losing the chars of a partial line. Lines longer than the read-ahead
+     * limit (see {@link #RETRY_READ_AHEAD_LIMIT}) cannot be rewound and their
+     * errors are not retryable.
+     * <p>
+     * Marking replaces any mark set by the caller, so {@link #mark(int)} and
+     * {@link #reset()} should not be combined with iteration under a
+     * retrying error policy.
+     * </p>
      */
     protected void readNextLine(){
+        final boolean marked = errorPolicy.canRetry();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (marked) {
+                    mark(readAheadLimit);
+                }
+                nextLine = readLine();
+                return;
+            }catch(IOException e){
+                if (!errorPolicy.onError(e, attempt, marked && rewind())) {
+                    nextLine = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the reader is back at the start of the failed line.
+     */
+    private boolean rewind() {
         try {
-            nextLine = readLine();
-        }catch(IOException e){
-            suppressed.add(e);
-            nextLine = null;
+            reset();
+            return true;
+        } catch (IOException e) {
+            return false;
         }
     }
 
@@ -77,13 +180,16 @@ public class IterableLineNumberReader extends LineNumberReader implements Iterat
      * Returns {@code true} if there's more lines to be read.
      * (In other words, returns {@code true} if {@link #getNextLine()} would
      * return an element rather than throwing an exception.)
+     * Repeated calls do not consume lines.
      *
      * @return {@code true} if there's more lines to read
      */
     public boolean hasNext() {
-        //look forward if next line is available
-        readNextLine();
-        readForward = false;
+        if(readForward){
+            //look forward if next line is available
+            readNextLine();
+            readForward = false;
+        }
         return nextLine != null;
     }
 
@@ -131,4 +237,247 @@ public class IterableLineNumberReader extends LineNumberReader implements Iterat
         return this.next();
     }
 
+    /**
+     * Returns remaining lines as an ordered stream, starting with a line
+     * already looked ahead by {@link #hasNext()}. Parallel streams split it
+     * into batches of lines read ahead. Read errors are thrown as
+     * {@link UncheckedIOException}.
+     * @return Line stream
+     */
+    @Override
+    public Stream<String> lines() {
+        return StreamSupport.stream(new LineSpliterator<String>() {
+            @Override
+            String nextElement() {
+                return nextLineOrNull();
+            }
+        }, false);
+    }
+
+    /**
+     * Returns remaining lines along with their line number.
+     * @return Numbered line stream
+     * @see #lines()
+     */
+    public Stream<NumberedLine> numberedLines() {
+        return StreamSupport.stream(new LineSpliterator<NumberedLine>() {
+            @Override
+            NumberedLine nextElement() {
+                String line = nextLineOrNull();
+                return (line == null) ? null : new NumberedLine(getLineNumber(), line);
+            }
+        }, false);
+    }
+
+    private String nextLineOrNull() {
+        if (!readForward) {
+            readForward = true;
+            return nextLine;
+        }
+        try {
+            return readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Line spliterator; {@link #trySplit()} hands out arithmetically growing
+     * batches of lines read ahead.
+     */
+    private abstract class LineSpliterator<T> implements Spliterator<T> {
+
+        private int batch;
+
+        /**
+         * @return Next element or {@code null} at end of input.
+         */
+        abstract T nextElement();
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            T element = nextElement();
+            if (element == null) {
+                return false;
+            }
+            action.accept(element);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            T element;
+            while ((element = nextElement()) != null) {
+                action.accept(element);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+            Object[] elements = new Object[n];
+            int j = 0;
+            T element;
+            while (j < n && (element = nextElement()) != null) {
+                elements[j++] = element;
+            }
+            if (j == 0) {
+                return null;
+            }
+            batch = j;
+            return Spliterators.spliterator(elements, 0, j, characteristics());
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * Visits remaining lines without per-line allocation. The visitor receives
+     * a reusable window over the line chars, valid only during the call.
+     * If the visitor stops, this reader may have consumed input beyond the
+     * last visited line.
+     * @param visitor Line visitor
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     */
+    public long forEachLine(LineVisitor visitor) throws IOException {
+        return forEachLine(visitor, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Visits remaining lines without per-line allocation.
+     * @param visitor Line visitor
+     * @param bufferSize Size of the char block read at a time.
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     * @see #forEachLine(LineVisitor)
+     */
+    public long forEachLine(LineVisitor visitor, int bufferSize) throws IOException {
+        if (visitor == null) {
+            throw new NullPointerException("visitor");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize");
+        }
+        long visited = 0;
+        if (!readForward) {
+            //line already read by hasNext()
+            readForward = true;
+            if (nextLine == null) {
+                return 0;
+            }
+            visited++;
+            if (!visitor.visitLine(CharBuffer.wrap(nextLine), getLineNumber())) {
+                return visited;
+            }
+        }
+        LineSplitter splitter = new LineSplitter(visitor, getLineNumber());
+        char[] buf = new char[bufferSize];
+        int n;
+        while ((n = read(buf, 0, buf.length)) != -1) {
+            if (!splitter.feed(buf, 0, n)) {
+                return visited + splitter.getCount();
+            }
+        }
+        splitter.finish();
+        return visited + splitter.getCount();
+    }
+
+    /**
+     * Opens a text file, inflating gzip files on worker threads with
+     * {@link ParallelGzipInputStream}.
+     * @param file File path
+     * @param charset File charset, of the inflated text for gzip files.
+     * @return Line reader
+     * @throws IOException If the file cannot be opened.
+     */
+    public static IterableLineNumberReader open(Path file, Charset charset) throws IOException {
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        InputStream in = ParallelGzipInputStream.isGzip(file) ? new ParallelGzipInputStream(file) : Files.newInputStream(file);
+        return new IterableLineNumberReader(new InputStreamReader(in, charset), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Visits the lines of a byte stream, decoding bytes straight into a
+     * {@link CharBuffer} that is split in place, without a {@link Reader} stack.
+     * Malformed input is replaced, as {@link java.io.InputStreamReader} does.
+     * @param in Byte stream
+     * @param charset Stream charset
+     * @param bufferSize Size of the byte and char buffers.
+     * @param visitor Line visitor
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     */
+    public static long forEachLine(InputStream in, Charset charset, int bufferSize, LineVisitor visitor) throws IOException {
+        return forEachLine(Channels.newChannel(in), charset, bufferSize, visitor);
+    }
+
+    /**
+     * Visits the lines of a blocking channel, decoding bytes straight into a
+     * {@link CharBuffer} that is split in place.
+     * @param in Blocking byte channel
+     * @param charset Channel charset
+     * @param bufferSize Size of the byte and char buffers.
+     * @param visitor Line visitor
+     * @return Number of lines visited
+     * @throws IOException If an I/O error occurs.
+     * @see #forEachLine(InputStream, Charset, int, LineVisitor)
+     */
+    public static long forEachLine(ReadableByteChannel in, Charset charset, int bufferSize, LineVisitor visitor) throws IOException {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize");
+        }
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        LineSplitter splitter = new LineSplitter(visitor, 0);
+        ByteBuffer bytes = ByteBuffer.allocate(Math.max(bufferSize, MIN_DECODE_BUFFER_SIZE));
+        CharBuffer chars = CharBuffer.allocate(Math.max(bufferSize, MIN_DECODE_BUFFER_SIZE));
+        boolean eof = false;
+        while (!eof) {
+            eof = in.read(bytes) == -1;
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, eof);
+                if (!drain(chars, splitter)) {
+                    return splitter.getCount();
+                }
+            } while (result.isOverflow());
+            bytes.compact();
+        }
+        CoderResult result;
+        do {
+            result = decoder.flush(chars);
+            if (!drain(chars, splitter)) {
+                return splitter.getCount();
+            }
+        } while (result.isOverflow());
+        splitter.finish();
+        return splitter.getCount();
+    }
+
+    private static boolean drain(CharBuffer chars, LineSplitter splitter) {
+        chars.flip();
+        boolean more = splitter.feed(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        chars.clear();
+        return more;
+    }
+
 }
@@ -0,0 +1,160 @@
+package net.apercova.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Resumable position of a {@link FollowingLineReader}: byte offset right after
+ * the last consumed line, its line number and the identity of the file read.
+ * <pre>
+ * +-------+---------+----------+-------------+-------------+
+ * | magic | version | position | line number | file key    |
+ * | 4     | 1       | 8        | 8           | 2 + n (UTF) |
+ * +-------+---------+----------+-------------+-------------+
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public final class LineCheckpoint {
+
+    public static final int MAGIC = 0x4150434B;
+    public static final byte VERSION = 1;
+
+    /**
+     * Start of file.
+     */
+    public static final LineCheckpoint START = new LineCheckpoint(0, 0, null);
+
+    private final long position;
+    private final long lineNumber;
+    private final String fileKey;
+
+    /**
+     * @param position Byte offset right after the last consumed line.
+     * @param lineNumber Number of the last consumed line, {@code 0} if none.
+     * @param fileKey File identity, see {@link java.nio.file.attribute.BasicFileAttributes#fileKey()}. May be {@code null}.
+     */
+    public LineCheckpoint(long position, long lineNumber, String fileKey) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position");
+        }
+        if (lineNumber < 0) {
+            throw new IllegalArgumentException("lineNumber");
+        }
+        this.position = position;
+        this.lineNumber = lineNumber;
+        this.fileKey = fileKey;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getFileKey() {
+        return fileKey;
+    }
+
+    /**
+     * Writes this checkpoint.
+     * @param out Target stream
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(position);
+        data.writeLong(lineNumber);
+        data.writeUTF(fileKey == null ? "" : fileKey);
+        data.flush();
+    }
+
+    /**
+     * Reads a checkpoint.
+     * @param in Source stream
+     * @return Checkpoint
+     * @throws IOException If the checkpoint is invalid.
+     */
+    public static LineCheckpoint readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a line checkpoint");
+        }
+        final byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version: " + version);
+        }
+        final long position = data.readLong();
+        final long lineNumber = data.readLong();
+        final String fileKey = data.readUTF();
+        try {
+            return new LineCheckpoint(position, lineNumber, fileKey.isEmpty() ? null : fileKey);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid line checkpoint", e);
+        }
+    }
+
+    /**
+     * Atomically replaces a checkpoint file, writing a sibling temporary file first.
+     * @param file Checkpoint file
+     * @throws IOException If an I/O error occurs.
+     */
+    public void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        OutputStream out = Files.newOutputStream(tmp);
+        try {
+            writeTo(out);
+        } finally {
+            out.close();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a checkpoint file.
+     * @param file Checkpoint file
+     * @return Checkpoint, {@link #START} if the file does not exist.
+     * @throws IOException If the checkpoint is invalid.
+     */
+    public static LineCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return START;
+        }
+        InputStream in = Files.newInputStream(file);
+        try {
+            return readFrom(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof LineCheckpoint)) {
+            return false;
+        }
+        LineCheckpoint other = (LineCheckpoint) obj;
+        return position == other.position && lineNumber == other.lineNumber
+                && (fileKey == null ? other.fileKey == null : fileKey.equals(other.fileKey));
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (position ^ (position >>> 32)) * 31 + (int) (lineNumber ^ (lineNumber >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "LineCheckpoint[position=" + position + ", lineNumber=" + lineNumber + ", fileKey=" + fileKey + "]";
+    }
+}
@@ -0,0 +1,447 @@
+package net.apercova.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sparse line-offset index for random access by line number.
+ * <p>
+ * The index holds the byte offset of at most every {@code interval} lines
+ * and is built in one parallel pass over a {@link MappedLineScanner}: each
+ * segment samples its own lines, so consecutive entries are never more than
+ * {@code interval} lines apart. Seeking to a line is a binary search plus a
+ * forward scan of fewer than {@code interval} lines.
+ * </p>
+ * <p>
+ * The index is persisted as a side file ({@value #SUFFIX}) with delta and
+ * variable-length encoded entries, and reused by {@link #open(Path, int)}
+ * while the indexed file keeps its size and modification time.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  LineIndex index = LineIndex.open(log, 1000);
+ *  try (IterableLineNumberReader reader = index.openAt(log, UTF_8, 40000000)) {
+ *      String line = reader.getNextLine();
+ *  }}
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Adding word-at-a-time newline search
+ * @version 1.2 2026.10 Adding side file validation and stale index check in {@link #openAt(Path, Charset, long)}
+ * @version 1.3 2026.10 Adding first entry validation
+ */
+public final class LineIndex {
+
+    public static final String SUFFIX = ".lidx";
+    public static final int MAGIC = 0x41504C49;
+    public static final byte VERSION = 1;
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private final int interval;
+    private final long fileSize;
+    private final long lastModified;
+    private final long lineCount;
+    private final long[] lines;
+    private final long[] positions;
+
+    private LineIndex(int interval, long fileSize, long lastModified, long lineCount, long[] lines, long[] positions) {
+        this.interval = interval;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.lineCount = lineCount;
+        this.lines = lines;
+        this.positions = positions;
+    }
+
+    /**
+     * Builds an index in one parallel pass.
+     * @param file Indexed file
+     * @param interval Maximum lines between index entries
+     * @return Line index
+     * @throws IOException If the file cannot be read.
+     */
+    public static LineIndex build(Path file, int interval) throws IOException {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval");
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        MappedLineScanner scanner = new MappedLineScanner(file, StandardCharsets.ISO_8859_1);
+        try {
+            MappedLineScanner.Segment[] segments = scanner.segments();
+            long[][] samples = new long[segments.length][];
+            int[] counts = new int[segments.length];
+            ForkJoinPool.commonPool().invoke(new SampleAction(segments, samples, counts, interval, 0, segments.length));
+
+            int entries = 0;
+            for (long[] sample : samples) {
+                entries += sample.length;
+            }
+            long[] lines = new long[entries];
+            long[] positions = new long[entries];
+            long firstLine = 1;
+            int j = 0;
+            for (int s = 0; s < segments.length; s++) {
+                for (int k = 0; k < samples[s].length; k++, j++) {
+                    lines[j] = firstLine + (long) k * interval;
+                    positions[j] = segments[s].position + samples[s][k];
+                }
+                firstLine += counts[s];
+            }
+            return new LineIndex(interval, scanner.size(), attributes.lastModifiedTime().toMillis(), firstLine - 1, lines, positions);
+        } finally {
+            scanner.close();
+        }
+    }
+
+    /**
+     * Loads the side file of {@code file} if it is current, otherwise builds
+     * the index and saves it.
+     * @param file Indexed file
+     * @param interval Maximum lines between index entries
+     * @return Line index
+     * @throws IOException If the file cannot be read or the index saved.
+     */
+    public static LineIndex open(Path file, int interval) throws IOException {
+        Path side = sideFile(file);
+        if (Files.exists(side)) {
+            try {
+                LineIndex index = load(side);
+                if (index.interval == interval && index.isCurrent(file)) {
+                    return index;
+                }
+            } catch (IOException e) {
+                //stale or corrupt, rebuild
+            }
+        }
+        LineIndex index = build(file, interval);
+        index.save(side);
+        return index;
+    }
+
+    /**
+     * @param file Indexed file
+     * @return Side file path, {@code file} name plus {@value #SUFFIX}.
+     */
+    public static Path sideFile(Path file) {
+        return file.resolveSibling(file.getFileName() + SUFFIX);
+    }
+
+    /**
+     * @param file Indexed file
+     * @return {@code true} if the file has the size and modification time it was indexed with.
+     * @throws IOException If the file attributes cannot be read.
+     */
+    public boolean isCurrent(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() == fileSize && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return Number of lines in the indexed file.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return Number of index entries.
+     */
+    public int size() {
+        return lines.length;
+    }
+
+    /**
+     * Finds the closest index entry at or before a line.
+     * @param lineNumber Line number, starting at 1.
+     * @return Entry index
+     */
+    private int floor(long lineNumber) {
+        if (lineNumber < 1 || lineNumber > lineCount) {
+            throw new IndexOutOfBoundsException("lineNumber: " + lineNumber + ", lines: " + lineCount);
+        }
+        int i = Arrays.binarySearch(lines, lineNumber);
+        return (i >= 0) ? i : -i - 2;
+    }
+
+    /**
+     * Byte offset where a line starts: an index lookup plus a forward scan of
+     * fewer than {@link #getInterval()} lines.
+     * @param channel Channel over the indexed file
+     * @param lineNumber Line number, starting at 1.
+     * @return Byte offset of the line.
+     * @throws IOException If an I/O error occurs.
+     */
+    public long positionOf(FileChannel channel, long lineNumber) throws IOException {
+        final int entry = floor(lineNumber);
+        long position = positions[entry];
+        long skip = lineNumber - lines[entry];
+        if (skip == 0) {
+            return position;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) {
+                throw new IOException("Indexed file is shorter than expected, line: " + lineNumber);
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n' && --skip == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * Opens a reader positioned at a line, with line numbering preserved.
+     * @param file Indexed file
+     * @param charset File charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @param lineNumber Line number, starting at 1, up to {@link Integer#MAX_VALUE}.
+     * @return Reader whose next line is {@code lineNumber}.
+     * @throws IOException If an I/O error occurs or the index is not {@link #isCurrent(Path) current}.
+     */
+    public IterableLineNumberReader openAt(Path file, Charset charset, long lineNumber) throws IOException {
+        if (lineNumber > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("lineNumber: " + lineNumber);
+        }
+        if (!isCurrent(file)) {
+            throw new IOException("Stale line index: " + file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(positionOf(channel, lineNumber));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        IterableLineNumberReader reader = new IterableLineNumberReader(Channels.newReader(channel, charset.newDecoder(), -1));
+        reader.setLineNumber((int) lineNumber - 1);
+        return reader;
+    }
+
+    /**
+     * Writes this index.
+     * <pre>
+     * magic(4) version(1) interval(4) fileSize(8) lastModified(8) lineCount(8) entries(4)
+     * then per entry: line delta, position delta as unsigned varints
+     * </pre>
+     * @param out Target stream
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(interval);
+        data.writeLong(fileSize);
+        data.writeLong(lastModified);
+        data.writeLong(lineCount);
+        data.writeInt(lines.length);
+        long line = 0;
+        long position = 0;
+        for (int i = 0; i < lines.length; i++) {
+            writeVarLong(data, lines[i] - line);
+            writeVarLong(data, positions[i] - position);
+            line = lines[i];
+            position = positions[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads an index.
+     * @param in Source stream
+     * @return Line index
+     * @throws IOException If the index is invalid.
+     */
+    public static LineIndex readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a line index");
+        }
+        final byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported line index version: " + version);
+        }
+        final int interval = data.readInt();
+        final long fileSize = data.readLong();
+        final long lastModified = data.readLong();
+        final long lineCount = data.readLong();
+        final int entries = data.readInt();
+        if (interval < 1 || entries < 0 || fileSize < 0 || lineCount < 0 || lineCount > fileSize + 1) {
+            throw new IOException("Invalid line index");
+        }
+        //each segment samples at most one line more than lineCount / interval
+        final long segments = fileSize / MappedLineScanner.MIN_SEGMENT_SIZE + 1;
+        //positionOf relies on an entry for line 1, so any line needs at least one entry
+        if ((lineCount > 0 && entries == 0) || entries > Math.min(lineCount, lineCount / interval + segments)) {
+            throw new IOException("Invalid line index entries: " + entries);
+        }
+        //grow while reading so a truncated file fails before a large allocation
+        long[] lines = new long[Math.min(entries, 4096)];
+        long[] positions = new long[lines.length];
+        long line = 0;
+        long position = 0;
+        for (int i = 0; i < entries; i++) {
+            final long lineDelta = readVarLong(data);
+            final long positionDelta = readVarLong(data);
+            //the first entry must be line 1 at offset 0
+            if (lineDelta < 1 || positionDelta < ((i == 0) ? 0 : 1)
+                    || (i == 0 && (lineDelta != 1 || positionDelta != 0))
+                    || (line += lineDelta) > lineCount || (position += positionDelta) > fileSize) {
+                throw new IOException("Invalid line index entry: " + i);
+            }
+            if (i == lines.length) {
+                lines = Arrays.copyOf(lines, Math.min(entries, i << 1));
+                positions = Arrays.copyOf(positions, lines.length);
+            }
+            lines[i] = line;
+            positions[i] = position;
+        }
+        return new LineIndex(interval, fileSize, lastModified, lineCount, lines, positions);
+    }
+
+    /**
+     * Atomically replaces an index file.
+     * @param file Index file
+     * @throws IOException If an I/O error occurs.
+     */
+    public void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        OutputStream out = Files.newOutputStream(tmp);
+        try {
+            writeTo(out);
+        } finally {
+            out.close();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param file Index file
+     * @return Line index
+     * @throws IOException If the index cannot be read or is invalid.
+     */
+    public static LineIndex load(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            return readFrom(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Samples the offset of every {@code interval}-th line of each segment,
+     * starting with its first line, and counts its lines.
+     */
+    private static final class SampleAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final MappedLineScanner.Segment[] segments;
+        private final long[][] samples;
+        private final int[] counts;
+        private final int interval;
+        private final int from;
+        private final int to;
+
+        SampleAction(MappedLineScanner.Segment[] segments, long[][] samples, int[] counts, int interval, int from, int to) {
+            this.segments = segments;
+            this.samples = samples;
+            this.counts = counts;
+            this.interval = interval;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    sample(from);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                SampleAction r1 = new SampleAction(segments, samples, counts, interval, from, mid);
+                SampleAction r2 = new SampleAction(segments, samples, counts, interval, mid, to);
+
+                r2.fork();
+                r1.compute();
+                r2.join();
+            }
+        }
+
+        private void sample(int s) {
+            final ByteBuffer buffer = segments[s].buffer;
+            final int limit = buffer.limit();
+            long[] offsets = new long[16];
+            int n = 0;
+            int count = 0;
+            int start = 0;
+            while (start < limit) {
+                if (count % interval == 0) {
+                    if (n == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, n * 2);
+                    }
+                    offsets[n++] = start;
+                }
+                int i = ByteScanner.indexOf(buffer, start, limit, (byte) '\n');
+                if (i < 0) {
+                    i = limit;
+                }
+                count++;
+                start = i + 1;
+            }
+            samples[s] = Arrays.copyOf(offsets, n);
+            counts[s] = count;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package net.apercova.io;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Splits chars fed in blocks into lines for a {@link LineVisitor}, reusing a
+ * single {@link CharBuffer} window. Lines end at {@code \n}, {@code \r} or
+ * {@code \r\n}, as in {@link java.io.LineNumberReader}. A line spanning
+ * blocks is carried over in a growing array.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+final class LineSplitter {
+
+    private final LineVisitor visitor;
+    private long lineNumber;
+    private long count;
+    private boolean skipLF;
+    private boolean stopped;
+
+    private char[] carry = new char[128];
+    private int carryLength;
+    private boolean carrying;
+
+    private char[] windowArray;
+    private CharBuffer window;
+
+    /**
+     * @param visitor Line visitor
+     * @param lineNumber Number of lines before the first fed char.
+     */
+    LineSplitter(LineVisitor visitor, long lineNumber) {
+        if (visitor == null) {
+            throw new NullPointerException("visitor");
+        }
+        this.visitor = visitor;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Splits a block of chars, visiting every completed line.
+     * @return {@code false} if the visitor stopped.
+     */
+    boolean feed(char[] buf, int off, int len) {
+        final int end = off + len;
+        int start = off;
+        int i = off;
+        if (skipLF && i < end) {
+            skipLF = false;
+            if (buf[i] == '\n') {
+                start = ++i;
+            }
+        }
+        while (i < end && !stopped) {
+            final char c = buf[i];
+            if (c != '\n' && c != '\r') {
+                i++;
+                continue;
+            }
+            if (carrying) {
+                append(buf, start, i - start);
+                emit(carry, 0, carryLength);
+                carrying = false;
+                carryLength = 0;
+            } else {
+                emit(buf, start, i - start);
+            }
+            i++;
+            if (c == '\r') {
+                if (i < end) {
+                    if (buf[i] == '\n') {
+                        i++;
+                    }
+                } else {
+                    skipLF = true;
+                }
+            }
+            start = i;
+        }
+        if (!stopped && start < end) {
+            append(buf, start, end - start);
+            carrying = true;
+        }
+        return !stopped;
+    }
+
+    /**
+     * Visits the last line if it has no line terminator.
+     * @return {@code false} if the visitor stopped.
+     */
+    boolean finish() {
+        if (carrying && !stopped) {
+            emit(carry, 0, carryLength);
+            carrying = false;
+            carryLength = 0;
+        }
+        return !stopped;
+    }
+
+    /**
+     * @return Number of lines visited.
+     */
+    long getCount() {
+        return count;
+    }
+
+    private void append(char[] buf, int off, int len) {
+        if (carryLength + len > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + len));
+        }
+        System.arraycopy(buf, off, carry, carryLength, len);
+        carryLength += len;
+    }
+
+    private void emit(char[] buf, int off, int len) {
+        if (buf != windowArray) {
+            windowArray = buf;
+            window = CharBuffer.wrap(buf);
+        }
+        window.clear();
+        window.limit(off + len);
+        window.position(off);
+        count++;
+        if (!visitor.visitLine(window, ++lineNumber)) {
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.apercova.io;
+
+import java.nio.CharBuffer;
+
+/**
+ * Callback receiving text lines without per-line allocation.
+ * @see IterableLineNumberReader#forEachLine(LineVisitor)
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public interface LineVisitor {
+
+    /**
+     * Visits a line.
+     * @param line Reusable window over the line chars, without line terminator.
+     *        Its content and position are only valid during the call.
+     * @param lineNumber Line number, starting at 1.
+     * @return {@code false} to stop visiting lines.
+     */
+    boolean visitLine(CharBuffer line, long lineNumber);
+}
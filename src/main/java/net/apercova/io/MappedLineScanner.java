@@ -0,0 +1,422 @@
+package net.apercova.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Memory-mapped line scanner for large files, a parallel alternative to
+ * {@link IterableLineNumberReader}.
+ * <p>
+ * The file is split at line boundaries into segments which are mapped with
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)} and scanned on
+ * {@link ForkJoinPool} workers. Lines are exposed as zero-copy {@link ByteLine}
+ * views carrying their absolute line number. Lines end at {@code \n} or
+ * {@code \r\n}; a final line without terminator is also reported.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  try (MappedLineScanner scanner = new MappedLineScanner(path)) {
+ *      long errors = scanner.lines().parallel()
+ *          .filter(line -> line.indexOf((byte) 'E', 0) == 0)
+ *          .count();
+ *  }}
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Adding word-at-a-time newline search
+ */
+public class MappedLineScanner implements Closeable {
+
+    public static final int MIN_SEGMENT_SIZE = 1 << 20;
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final long size;
+    private final Segment[] segments;
+    private volatile boolean counted;
+
+    /**
+     * Scans a UTF-8 file.
+     * @param path File path
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public MappedLineScanner(Path path) throws IOException {
+        this(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param path File path
+     * @param charset File charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public MappedLineScanner(Path path, Charset charset) throws IOException {
+        this(path, charset, 0);
+    }
+
+    /**
+     * @param path File path
+     * @param charset File charset, must encode {@code \n} as a single {@code 0x0A} byte.
+     * @param segmentSize Target segment size in bytes, {@code 0} to size segments by parallelism.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public MappedLineScanner(Path path, Charset charset, int segmentSize) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("path");
+        }
+        if (charset == null) {
+            throw new NullPointerException("charset");
+        }
+        if (segmentSize < 0) {
+            throw new IllegalArgumentException("segmentSize");
+        }
+        this.charset = charset;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            if (segmentSize == 0) {
+                long target = size / (ForkJoinPool.getCommonPoolParallelism() * 4L);
+                segmentSize = (int) Math.max(MIN_SEGMENT_SIZE, Math.min(DEFAULT_SEGMENT_SIZE, target));
+            }
+            this.segments = split(segmentSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the file in segments ending right after a {@code \n}.
+     */
+    private Segment[] split(int segmentSize) throws IOException {
+        List<Segment> list = new ArrayList<Segment>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + segmentSize);
+            if (end < size) {
+                end = nextLineStart(end - 1, probe);
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long to map at position: " + start);
+            }
+            list.add(new Segment(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start));
+            start = end;
+        }
+        return list.toArray(new Segment[list.size()]);
+    }
+
+    private long nextLineStart(long position, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int n = channel.read(probe, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * Counts lines of each segment in parallel to assign absolute line numbers.
+     */
+    private void count() {
+        if (counted) {
+            return;
+        }
+        synchronized (this) {
+            if (!counted) {
+                ForkJoinPool.commonPool().invoke(new SegmentAction(this, 0, segments.length, null));
+                long line = 1;
+                for (Segment segment : segments) {
+                    segment.firstLine = line;
+                    line += segment.lineCount;
+                }
+                counted = true;
+            }
+        }
+    }
+
+    /**
+     * @return Mapped segments, in file order.
+     */
+    Segment[] segments() {
+        return segments;
+    }
+
+    /**
+     * @return File size in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Number of lines in the file.
+     */
+    public long lineCount() {
+        count();
+        long n = 0;
+        for (Segment segment : segments) {
+            n += segment.lineCount;
+        }
+        return n;
+    }
+
+    /**
+     * Visits every line on the common {@link ForkJoinPool}. Lines of a segment
+     * are visited in order, segments are visited concurrently. The
+     * {@link ByteLine} passed to {@code action} is reused for the next line of
+     * the same segment.
+     * @param action Line action, must be thread-safe.
+     */
+    public void forEachLine(Consumer<? super ByteLine> action) {
+        forEachLine(action, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Visits every line on a {@link ForkJoinPool}.
+     * @param action Line action, must be thread-safe.
+     * @param pool Pool to run on.
+     * @see #forEachLine(Consumer)
+     */
+    public void forEachLine(Consumer<? super ByteLine> action, ForkJoinPool pool) {
+        if (action == null) {
+            throw new NullPointerException("action");
+        }
+        count();
+        pool.invoke(new SegmentAction(this, 0, segments.length, action));
+    }
+
+    /**
+     * Returns an ordered stream of lines. Each element is a distinct
+     * {@link ByteLine} view; call {@link Stream#parallel()} to scan segments
+     * concurrently.
+     * @return Line stream
+     */
+    public Stream<ByteLine> lines() {
+        count();
+        return StreamSupport.stream(new SegmentSpliterator(0, segments.length), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Scans the lines of a segment.
+     * @param segment Segment to scan
+     * @param line Line view to fill, or {@code null} to only count lines
+     * @param action Line action
+     * @return Number of lines
+     */
+    int scan(Segment segment, ByteLine line, Consumer<? super ByteLine> action) {
+        final ByteBuffer buffer = segment.buffer;
+        final int limit = buffer.limit();
+        int count = 0;
+        int start = 0;
+        while (start < limit) {
+            int i = ByteScanner.indexOf(buffer, start, limit, (byte) '\n');
+            if (i < 0) {
+                i = limit;
+            }
+            if (action != null) {
+                int end = (i > start && buffer.get(i - 1) == '\r') ? i - 1 : i;
+                action.accept(line.set(buffer, start, end - start, segment.firstLine + count, segment.position + start, charset));
+            }
+            count++;
+            start = i + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Mapped file region holding whole lines.
+     */
+    static final class Segment {
+        final MappedByteBuffer buffer;
+        final long position;
+        int lineCount;
+        long firstLine;
+
+        Segment(MappedByteBuffer buffer, long position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Scans a range of segments, splitting it in halves.
+     */
+    private static final class SegmentAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final MappedLineScanner scanner;
+        private final int from;
+        private final int to;
+        private final Consumer<? super ByteLine> action;
+
+        SegmentAction(MappedLineScanner scanner, int from, int to, Consumer<? super ByteLine> action) {
+            this.scanner = scanner;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    Segment segment = scanner.segments[from];
+                    if (action == null) {
+                        segment.lineCount = scanner.scan(segment, null, null);
+                    } else {
+                        scanner.scan(segment, new ByteLine(), action);
+                    }
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                SegmentAction r1 = new SegmentAction(scanner, from, mid, action);
+                SegmentAction r2 = new SegmentAction(scanner, mid, to, action);
+
+                r2.fork();
+                r1.compute();
+                r2.join();
+            }
+        }
+    }
+
+    /**
+     * Spliterator over a range of segments. Splits by segments; lines of a
+     * single segment are traversed sequentially.
+     */
+    private final class SegmentSpliterator implements Spliterator<ByteLine> {
+
+        private int index;
+        private final int fence;
+        private int offset;
+        private long line;
+
+        SegmentSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ByteLine> action) {
+            while (index < fence) {
+                if (advanceInSegment(action)) {
+                    return true;
+                }
+                nextSegment();
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super ByteLine> action) {
+            if (offset > 0 && index < fence) {
+                while (advanceInSegment(action)) {
+                    // finish the partially traversed segment
+                }
+                nextSegment();
+            }
+            for (; index < fence; index++) {
+                scan(segments[index], new ByteLine(), new CopyingAction(action));
+            }
+        }
+
+        /**
+         * Visits the next line of the current segment.
+         * @return {@code false} if the segment is exhausted.
+         */
+        private boolean advanceInSegment(Consumer<? super ByteLine> action) {
+            Segment segment = segments[index];
+            ByteBuffer buffer = segment.buffer;
+            int limit = buffer.limit();
+            if (offset >= limit) {
+                return false;
+            }
+            int i = ByteScanner.indexOf(buffer, offset, limit, (byte) '\n');
+            if (i < 0) {
+                i = limit;
+            }
+            int end = (i > offset && buffer.get(i - 1) == '\r') ? i - 1 : i;
+            ByteLine next = new ByteLine(buffer, offset, end - offset, segment.firstLine + line, segment.position + offset, charset);
+            offset = i + 1;
+            line++;
+            action.accept(next);
+            return true;
+        }
+
+        private void nextSegment() {
+            index++;
+            offset = 0;
+            line = 0;
+        }
+
+        @Override
+        public Spliterator<ByteLine> trySplit() {
+            if (offset > 0 || fence - index < 2) {
+                return null;
+            }
+            int mid = (index + fence) >>> 1;
+            Spliterator<ByteLine> prefix = new SegmentSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long n = -line;
+            for (int i = index; i < fence; i++) {
+                n += segments[i].lineCount;
+            }
+            return n;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Hands out a distinct view for each line, as stream elements may be retained.
+     */
+    private static final class CopyingAction implements Consumer<ByteLine> {
+        private final Consumer<? super ByteLine> action;
+
+        CopyingAction(Consumer<? super ByteLine> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void accept(ByteLine line) {
+            action.accept(line.slice(0, line.byteLength()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package net.apercova.io;
+
+/**
+ * Text line along with its line number.
+ * @see IterableLineNumberReader#numberedLines()
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public final class NumberedLine {
+
+    private final long lineNumber;
+    private final String line;
+
+    public NumberedLine(long lineNumber, String line) {
+        if (line == null) {
+            throw new NullPointerException("line");
+        }
+        this.lineNumber = lineNumber;
+        this.line = line;
+    }
+
+    /**
+     * @return Line number, starting at 1.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return Line text, without line terminator.
+     */
+    public String getLine() {
+        return line;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof NumberedLine)) {
+            return false;
+        }
+        NumberedLine other = (NumberedLine) obj;
+        return lineNumber == other.lineNumber && line.equals(other.line);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (lineNumber ^ (lineNumber >>> 32)) + line.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return lineNumber + ":" + line;
+    }
+}
@@ -0,0 +1,547 @@
+package net.apercova.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Gzip file input stream inflating members in parallel, a drop-in
+ * replacement for {@link java.util.zip.GZIPInputStream} under
+ * {@link IterableLineNumberReader} or {@link ByteLineReader}.
+ * <p>
+ * Multi-member files, such as those written by {@code bgzip} or by
+ * concatenating gzip files, are split at member headers into chunks of
+ * about {@code chunkSize} compressed bytes which are inflated on
+ * {@link ForkJoinPool} workers. Note that {@code gzip} and {@code pigz} write
+ * a single member. Inflated data is handed out in file order through a
+ * window of pending chunks, so line numbers stay exact. Header candidates
+ * are only hints: a chunk is used only if it starts where the previous one
+ * actually ended, and every member is checked against its CRC-32 and size
+ * trailer. Headers are searched within
+ * {@code chunkSize} bytes past each split point; if none is found the rest of
+ * the file is a single chunk. A single-member file cannot be split; it is
+ * still inflated ahead of the reader, in blocks, on a worker.
+ * </p>
+ * <p>
+ * Inflated data is kept in blocks of 256 KiB, allocated
+ * as data is produced. Each pending chunk inflates ahead at most its share of
+ * {@code bufferLimit} before it waits for the reader, so inflated data held
+ * by the stream never exceeds {@code bufferLimit} plus the block being read,
+ * along with a 64 KiB input buffer per pending chunk. The
+ * number of pending chunks is at most twice the pool parallelism and at most
+ * {@code bufferLimit / (4 * chunkSize)}, assuming a 4:1 compression ratio, but
+ * never less than 2.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  try (IterableLineNumberReader reader = IterableLineNumberReader.open(path, UTF_8)) {
+ *      for (String line : reader) {
+ *          System.out.printf("#[%d]-%s%n", reader.getLineNumber(), line);
+ *      }
+ *  }}
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Bounding the member header probe, releasing inflaters of dropped chunks
+ * @version 1.2 2026.10 Bounding inflated data by bytes in fixed-size blocks
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    public static final int MIN_CHUNK_SIZE = 1 << 16;
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+    public static final long DEFAULT_BUFFER_LIMIT = 128L << 20;
+
+    /**
+     * Size of inflated blocks, below the G1 humongous object threshold.
+     */
+    private static final int BLOCK_SIZE = 1 << 18;
+    private static final int INPUT_SIZE = 1 << 16;
+    private static final int HEADER_SIZE = 10;
+
+    private static final int DEFLATED = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final int maxPending;
+    private final int maxBlocks;
+    private final Deque<Chunk> pending = new ArrayDeque<Chunk>();
+    private long nextSplit;
+    private long expected;
+    private boolean finished;
+    private boolean closed;
+    private byte[] block = new byte[0];
+    private int blockPosition;
+    private int blockLength;
+
+    /**
+     * Inflates a gzip file on the common {@link ForkJoinPool}.
+     * @param path File path
+     * @throws IOException If the file cannot be opened or is not in gzip format.
+     */
+    public ParallelGzipInputStream(Path path) throws IOException {
+        this(path, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_BUFFER_LIMIT);
+    }
+
+    /**
+     * @param path File path
+     * @param pool Worker pool
+     * @param chunkSize Compressed bytes per chunk, at least {@value #MIN_CHUNK_SIZE}.
+     * @throws IOException If the file cannot be opened or is not in gzip format.
+     */
+    public ParallelGzipInputStream(Path path, ForkJoinPool pool, int chunkSize) throws IOException {
+        this(path, pool, chunkSize, DEFAULT_BUFFER_LIMIT);
+    }
+
+    /**
+     * @param path File path
+     * @param pool Worker pool
+     * @param chunkSize Compressed bytes per chunk, at least {@value #MIN_CHUNK_SIZE}.
+     * @param bufferLimit Inflated bytes held ahead of the reader, at least two blocks.
+     * @throws IOException If the file cannot be opened or is not in gzip format.
+     */
+    public ParallelGzipInputStream(Path path, ForkJoinPool pool, int chunkSize, long bufferLimit) throws IOException {
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize");
+        }
+        if (bufferLimit < 2L * BLOCK_SIZE) {
+            throw new IllegalArgumentException("bufferLimit");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            if (dataStart(channel, 0) < 0) {
+                throw new ZipException("Not in GZIP format");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxPending = (int) Math.max(2, Math.min(pool.getParallelism() * 2L, bufferLimit / (4L * chunkSize)));
+        this.maxBlocks = (int) Math.max(1, Math.min(Integer.MAX_VALUE, bufferLimit / maxPending / BLOCK_SIZE));
+    }
+
+    /**
+     * @param path File path
+     * @return {@code true} if the file starts with the gzip magic number.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isGzip(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            byte[] magic = new byte[2];
+            return read(channel, 0, magic, 0, 2) == 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B;
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (blockPosition == blockLength && !nextBlock()) {
+            return -1;
+        }
+        return block[blockPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (blockPosition == blockLength && !nextBlock()) {
+            return -1;
+        }
+        final int n = Math.min(len, blockLength - blockPosition);
+        System.arraycopy(block, blockPosition, b, off, n);
+        blockPosition += n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return blockLength - blockPosition;
+    }
+
+    /**
+     * Takes the next inflated block in file order.
+     * @return {@code false} at end of stream.
+     */
+    private boolean nextBlock() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (!finished) {
+            submit();
+            Chunk chunk = pending.peekFirst();
+            if (chunk != null && chunk.start < expected) {
+                //false member header or already inflated by the previous chunk
+                pending.pollFirst();
+                chunk.cancelled = true;
+                chunk.task.quietlyJoin();
+                chunk.release();
+                continue;
+            }
+            if (chunk == null || chunk.start > expected) {
+                if (expected >= size) {
+                    finished = true;
+                    break;
+                }
+                //the previous chunk ended past a false header: fill the gap
+                chunk = new Chunk(channel, size, expected, (chunk == null) ? size : chunk.start, maxBlocks);
+                chunk.task = pool.submit(chunk);
+                pending.offerFirst(chunk);
+            }
+            await(chunk);
+            final Block next = chunk.blocks.pollFirst();
+            if (next != null) {
+                block = next.data;
+                blockPosition = 0;
+                blockLength = next.length;
+                return true;
+            }
+            //the inflated blocks of this call are drained
+            if (chunk.done) {
+                pending.pollFirst();
+                expected = chunk.position;
+                finished = chunk.last;
+            } else {
+                chunk.task = pool.submit(chunk);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits and submits chunks until the pending window is full.
+     */
+    private void submit() throws IOException {
+        while (pending.size() < maxPending && nextSplit < size) {
+            final long start = nextSplit;
+            final long end = findHeader(start + chunkSize, start + 2L * chunkSize);
+            Chunk chunk = new Chunk(channel, size, start, end, maxBlocks);
+            chunk.task = pool.submit(chunk);
+            pending.offerLast(chunk);
+            nextSplit = end;
+        }
+    }
+
+    private static void await(Chunk chunk) throws IOException {
+        try {
+            chunk.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+        if (chunk.error != null) {
+            throw chunk.error;
+        }
+    }
+
+    /**
+     * Finds the next member header candidate within a bounded probe, so a
+     * single-member file is not read twice before its first block.
+     * @param from Start position
+     * @param limit Probe end; past it the rest of the file is a single chunk.
+     * @return Candidate position, or the file size.
+     */
+    private long findHeader(long from, long limit) throws IOException {
+        final ByteBuffer window = ByteBuffer.allocate(INPUT_SIZE);
+        long position = from;
+        while (position < size && position < limit) {
+            window.clear();
+            final int n = read(channel, position, window.array(), 0, window.capacity());
+            int i = 0;
+            while ((i = ByteScanner.indexOf(window, i, n, (byte) 0x1F)) >= 0) {
+                if (n - i < HEADER_SIZE && position + n < size) {
+                    break;
+                }
+                if (isHeader(window.array(), i, n - i)) {
+                    return position + i;
+                }
+                i++;
+            }
+            //overlap windows by a header
+            position += (n < window.capacity()) ? n : n - HEADER_SIZE;
+        }
+        return size;
+    }
+
+    private static boolean isHeader(byte[] b, int off, int len) {
+        return len >= HEADER_SIZE
+            && (b[off] & 0xFF) == 0x1F
+            && (b[off + 1] & 0xFF) == 0x8B
+            && b[off + 2] == DEFLATED
+            && (b[off + 3] & 0xE0) == 0
+            && (b[off + 8] == 0 || b[off + 8] == 2 || b[off + 8] == 4)
+            && ((b[off + 9] & 0xFF) <= 13 || (b[off + 9] & 0xFF) == 0xFF);
+    }
+
+    /**
+     * Parses a member header.
+     * @param channel File channel
+     * @param position Header position
+     * @return Position of the deflate data, or {@code -1} if there is no valid header.
+     */
+    static long dataStart(FileChannel channel, long position) throws IOException {
+        final byte[] b = new byte[256];
+        if (read(channel, position, b, 0, HEADER_SIZE) < HEADER_SIZE || !isHeader(b, 0, HEADER_SIZE)) {
+            return -1;
+        }
+        final int flags = b[3];
+        long p = position + HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (read(channel, p, b, 0, 2) < 2) {
+                return -1;
+            }
+            p += 2 + ((b[0] & 0xFF) | (b[1] & 0xFF) << 8);
+        }
+        for (int field = FNAME; field <= FCOMMENT; field <<= 1) {
+            if ((flags & field) != 0) {
+                //zero-terminated
+                int n;
+                int i = -1;
+                while (i < 0) {
+                    if ((n = read(channel, p, b, 0, b.length)) <= 0) {
+                        return -1;
+                    }
+                    for (i = 0; i < n && b[i] != 0; i++) {
+                    }
+                    p += Math.min(i + 1, n);
+                    i = (i < n) ? i : -1;
+                }
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            p += 2;
+        }
+        return p;
+    }
+
+    /**
+     * Reads bytes at an absolute position.
+     * @return Number of bytes read, less than {@code len} only at end of file.
+     */
+    static int read(FileChannel channel, long position, byte[] b, int off, int len) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position() - off) < 0) {
+                break;
+            }
+        }
+        return buffer.position() - off;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Chunk chunk : pending) {
+            chunk.cancelled = true;
+        }
+        for (Chunk chunk : pending) {
+            chunk.task.quietlyJoin();
+            chunk.release();
+        }
+        pending.clear();
+        channel.close();
+    }
+
+    /**
+     * Inflated data.
+     */
+    static final class Block {
+        final byte[] data;
+        final int length;
+
+        Block(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Members starting from {@code start} up to the first member boundary at
+     * or past {@code end}, inflated up to {@code maxBlocks} blocks per call.
+     */
+    static final class Chunk implements Callable<Chunk> {
+        final FileChannel channel;
+        final long size;
+        final long start;
+        final long end;
+        final int maxBlocks;
+        final byte[] input = new byte[INPUT_SIZE];
+        final CRC32 crc = new CRC32();
+        final Deque<Block> blocks = new ArrayDeque<Block>();
+        ForkJoinTask<Chunk> task;
+        IOException error;
+        Inflater inflater;
+        long memberSize;
+        long position;
+        boolean done;
+        boolean last;
+        volatile boolean cancelled;
+
+        Chunk(FileChannel channel, long size, long start, long end, int maxBlocks) {
+            this.channel = channel;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+            this.maxBlocks = maxBlocks;
+            this.position = start;
+        }
+
+        @Override
+        public Chunk call() {
+            try {
+                inflate();
+            } catch (IOException e) {
+                release();
+                blocks.clear();
+                error = e;
+            }
+            return this;
+        }
+
+        private void inflate() throws IOException {
+            byte[] out = null;
+            int n = 0;
+            try {
+                while (!done && !cancelled) {
+                    if (inflater == null && !nextMember()) {
+                        done = true;
+                        break;
+                    }
+                    if (out == null || n == out.length) {
+                        if (out != null) {
+                            blocks.offerLast(new Block(out, n));
+                            out = null;
+                            n = 0;
+                        }
+                        if (blocks.size() >= maxBlocks) {
+                            break;
+                        }
+                        out = new byte[BLOCK_SIZE];
+                    }
+                    if (inflater.needsInput()) {
+                        final int r = read(channel, position, input, 0, input.length);
+                        if (r <= 0) {
+                            throw new EOFException("Unexpected end of ZLIB input stream");
+                        }
+                        inflater.setInput(input, 0, r);
+                        position += r;
+                    }
+                    final int k = inflater.inflate(out, n, out.length - n);
+                    crc.update(out, n, k);
+                    memberSize += k;
+                    n += k;
+                    if (inflater.finished()) {
+                        position -= inflater.getRemaining();
+                        release();
+                        checkTrailer();
+                    } else if (k == 0 && inflater.needsDictionary()) {
+                        throw new ZipException("Unexpected preset dictionary");
+                    }
+                }
+                if (cancelled) {
+                    release();
+                }
+            } catch (DataFormatException e) {
+                release();
+                final String message = e.getMessage();
+                throw new ZipException((message != null) ? message : "Invalid ZLIB data format");
+            }
+            if (n > 0) {
+                blocks.offerLast(new Block(out, n));
+            }
+        }
+
+        /**
+         * Starts the next member, unless the chunk end has been reached.
+         * @return {@code false} when the chunk is done.
+         */
+        private boolean nextMember() throws IOException {
+            if (position >= size) {
+                last = true;
+                return false;
+            }
+            if (position >= end && position > start) {
+                return false;
+            }
+            final long data = dataStart(channel, position);
+            if (data < 0) {
+                if (position == start) {
+                    throw new ZipException("Not in GZIP format");
+                }
+                //trailing garbage is ignored, as GZIPInputStream does
+                last = true;
+                return false;
+            }
+            position = data;
+            inflater = new Inflater(true);
+            crc.reset();
+            memberSize = 0;
+            return true;
+        }
+
+        private void checkTrailer() throws IOException {
+            final byte[] trailer = new byte[8];
+            if (read(channel, position, trailer, 0, 8) < 8) {
+                throw new EOFException("Unexpected end of GZIP trailer");
+            }
+            final ByteBuffer le = ByteBuffer.wrap(trailer).order(ByteOrder.LITTLE_ENDIAN);
+            if ((le.getInt(0) & 0xFFFFFFFFL) != crc.getValue() || (le.getInt(4) & 0xFFFFFFFFL) != (memberSize & 0xFFFFFFFFL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            position += 8;
+        }
+
+        void release() {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+    }
+}
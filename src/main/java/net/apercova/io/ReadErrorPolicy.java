@@ -0,0 +1,233 @@
+package net.apercova.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handling of read errors raised while iterating lines, where
+ * {@link java.util.Iterator#next()} cannot throw {@link IOException}.
+ * <p>
+ * Policies keep memory bounded: {@link #record(int, boolean)} keeps only
+ * the last errors in a ring buffer plus a total counter, optionally replacing
+ * each error with a stackless copy so error storms do not retain stack
+ * traces. A policy instance holds state and belongs to a single reader.
+ * </p>
+ * <pre>
+ * Use:
+ * {@code
+ *  reader.setErrorPolicy(ReadErrorPolicy.retry(5, 100, 5000, ReadErrorPolicy.record(16, false)));
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Adding retryable reads, see {@link #onError(IOException, int, boolean)}
+ * @version 1.2 2026.10 Adding {@link #canRetry()}
+ */
+public abstract class ReadErrorPolicy {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    /**
+     * Handles a read error of a read that can be repeated.
+     * @param error Read error
+     * @param attempt Consecutive failed attempts of the same read, starting at 1.
+     * @return {@code true} to retry the read, {@code false} to end iteration.
+     * @throws UncheckedIOException To fail.
+     */
+    public final boolean onError(IOException error, int attempt) {
+        return onError(error, attempt, true);
+    }
+
+    /**
+     * Handles a read error.
+     * @param error Read error
+     * @param attempt Consecutive failed attempts of the same read, starting at 1.
+     * @param retryable {@code false} if the failed read consumed input that
+     *        cannot be read again, such as part of a line.
+     * @return {@code true} to retry the read, {@code false} to end iteration;
+     *         always {@code false} if the read is not retryable.
+     * @throws UncheckedIOException To fail.
+     */
+    public final boolean onError(IOException error, int attempt, boolean retryable) {
+        errorCount.incrementAndGet();
+        return handle(error, attempt, retryable) && retryable;
+    }
+
+    /**
+     * @see #onError(IOException, int, boolean)
+     */
+    protected abstract boolean handle(IOException error, int attempt, boolean retryable);
+
+    /**
+     * Whether this policy may ever ask to retry a read. Readers only mark
+     * their position before each read when it may be retried.
+     * @return {@code true} unless the policy never retries.
+     */
+    protected boolean canRetry() {
+        return true;
+    }
+
+    /**
+     * @return Total number of read errors.
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return Most recent errors kept by this policy, oldest first.
+     */
+    public List<Throwable> getErrors() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Throws every read error as {@link UncheckedIOException}.
+     * @return Policy
+     */
+    public static ReadErrorPolicy failFast() {
+        return new ReadErrorPolicy() {
+            @Override
+            protected boolean handle(IOException error, int attempt, boolean retryable) {
+                throw new UncheckedIOException(error);
+            }
+
+            @Override
+            protected boolean canRetry() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Keeps the last {@code capacity} errors and ends iteration on error.
+     * @param capacity Number of errors kept
+     * @param stackTraces {@code false} to keep stackless copies of errors.
+     * @return Policy
+     */
+    public static ReadErrorPolicy record(int capacity, boolean stackTraces) {
+        return new Record(capacity, stackTraces);
+    }
+
+    /**
+     * Retries a failed read with exponential backoff, then hands the error to
+     * {@code fallback}. Errors of successful retries are counted but not kept.
+     * Reads that cannot be repeated go to {@code fallback} at once.
+     * @param maxAttempts Maximum attempts of the same read
+     * @param initialBackoffMillis Wait before the first retry
+     * @param maxBackoffMillis Maximum wait between retries
+     * @param fallback Policy applied once attempts are exhausted
+     * @return Policy
+     */
+    public static ReadErrorPolicy retry(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, ReadErrorPolicy fallback) {
+        return new Retry(maxAttempts, initialBackoffMillis, maxBackoffMillis, fallback);
+    }
+
+    /**
+     * Ring buffer of the last errors.
+     */
+    private static final class Record extends ReadErrorPolicy {
+
+        private final Throwable[] errors;
+        private final boolean stackTraces;
+        private int next;
+        private int size;
+
+        Record(int capacity, boolean stackTraces) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity");
+            }
+            this.errors = new Throwable[capacity];
+            this.stackTraces = stackTraces;
+        }
+
+        @Override
+        protected synchronized boolean handle(IOException error, int attempt, boolean retryable) {
+            errors[next] = stackTraces ? error : new StacklessIOException(error);
+            next = (next + 1) % errors.length;
+            size = Math.min(size + 1, errors.length);
+            return false;
+        }
+
+        @Override
+        protected boolean canRetry() {
+            return false;
+        }
+
+        @Override
+        public synchronized List<Throwable> getErrors() {
+            List<Throwable> list = new ArrayList<Throwable>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(errors[(next - size + i + errors.length) % errors.length]);
+            }
+            return list;
+        }
+    }
+
+    private static final class Retry extends ReadErrorPolicy {
+
+        private final int maxAttempts;
+        private final long initialBackoffMillis;
+        private final long maxBackoffMillis;
+        private final ReadErrorPolicy fallback;
+
+        Retry(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, ReadErrorPolicy fallback) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts");
+            }
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException("backoff");
+            }
+            if (fallback == null) {
+                throw new NullPointerException("fallback");
+            }
+            this.maxAttempts = maxAttempts;
+            this.initialBackoffMillis = initialBackoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+            this.fallback = fallback;
+        }
+
+        @Override
+        protected boolean handle(IOException error, int attempt, boolean retryable) {
+            if (!retryable || attempt >= maxAttempts) {
+                return fallback.onError(error, attempt, retryable);
+            }
+            long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return fallback.onError(error, attempt, retryable);
+            }
+            return true;
+        }
+
+        @Override
+        public List<Throwable> getErrors() {
+            return fallback.getErrors();
+        }
+    }
+
+    /**
+     * Copy of a read error without stack trace or cause.
+     */
+    static final class StacklessIOException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        StacklessIOException(IOException error) {
+            super(error.getClass().getName() + ": " + error.getMessage());
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
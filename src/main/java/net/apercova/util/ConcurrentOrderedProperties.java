@@ -0,0 +1,232 @@
+package net.apercova.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Variante de {@link OrderedProperties} para lecturas concurrentes.
+ * <p>
+ * Las propiedades se publican como un {@link PropertiesSnapshot} inmutable a
+ * través de una referencia {@code volatile}: cada lectura es una lectura
+ * volátil más una búsqueda en la tabla del snapshot, sin candados ni
+ * esperas, y conserva el orden de declaración. Las escrituras copian el
+ * snapshot (copy-on-write) y se serializan entre sí, sin bloquear lecturas.
+ * Pensado para configuración de lectura frecuente y escritura ocasional;
+ * para cargas masivas usar {@link #load(Reader)} o {@link #replace(PropertiesSnapshot)},
+ * que publican una sola copia.
+ * </p>
+ * <pre>
+ * Uso:
+ * {@code
+ *  ConcurrentOrderedProperties config = new ConcurrentOrderedProperties();
+ *  config.load(reader);
+ *  String url = config.getProperty("db.url");
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando carga y guardado con {@link PropertiesParser} y {@link PropertiesWriter}
+ */
+public class ConcurrentOrderedProperties implements Iterable<Map.Entry<String, String>> {
+
+	/**
+	 * Serializa escrituras.
+	 */
+	private final Object lock = new Object();
+	private volatile PropertiesSnapshot snapshot;
+
+	public ConcurrentOrderedProperties() {
+		this(PropertiesSnapshot.EMPTY);
+	}
+
+	/**
+	 * @param snapshot Propiedades iniciales
+	 */
+	public ConcurrentOrderedProperties(PropertiesSnapshot snapshot) {
+		if (snapshot == null) {
+			throw new NullPointerException("snapshot");
+		}
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * @param properties Propiedades iniciales, en el orden de {@link Properties#keys()}.
+	 */
+	public ConcurrentOrderedProperties(Properties properties) {
+		this(PropertiesSnapshot.of(properties));
+	}
+
+	/**
+	 * @return Propiedades actuales; no cambia con escrituras posteriores.
+	 */
+	public PropertiesSnapshot snapshot() {
+		return snapshot;
+	}
+
+	public String getProperty(String key) {
+		return snapshot.get(key);
+	}
+
+	public String getProperty(String key, String defaultValue) {
+		return snapshot.get(key, defaultValue);
+	}
+
+	public boolean containsKey(String key) {
+		return snapshot.containsKey(key);
+	}
+
+	public int size() {
+		return snapshot.size();
+	}
+
+	public boolean isEmpty() {
+		return snapshot.isEmpty();
+	}
+
+	/**
+	 * @return Claves en orden de declaración.
+	 */
+	public List<String> orderedKeys() {
+		return snapshot.keys();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, String>> iterator() {
+		return snapshot.iterator();
+	}
+
+	/**
+	 * Asigna una propiedad. Una clave existente conserva su posición.
+	 * @param key Clave
+	 * @param value Valor
+	 * @return Valor anterior o {@code null}.
+	 */
+	public String setProperty(String key, String value) {
+		synchronized (lock) {
+			PropertiesSnapshot current = snapshot;
+			String previous = current.get(key);
+			snapshot = current.with(key, value);
+			return previous;
+		}
+	}
+
+	/**
+	 * @param key Clave
+	 * @return Valor eliminado o {@code null}.
+	 */
+	public String remove(String key) {
+		synchronized (lock) {
+			PropertiesSnapshot current = snapshot;
+			String previous = current.get(key);
+			snapshot = current.without(key);
+			return previous;
+		}
+	}
+
+	/**
+	 * Asigna todas las propiedades publicando una sola copia.
+	 * @param properties Propiedades
+	 */
+	public void putAll(PropertiesSnapshot properties) {
+		synchronized (lock) {
+			snapshot = snapshot.withAll(properties);
+		}
+	}
+
+	/**
+	 * Asigna todas las propiedades publicando una sola copia.
+	 * @param properties Propiedades, en el orden de iteración del mapa.
+	 */
+	public void putAll(Map<String, String> properties) {
+		putAll(PropertiesSnapshot.of(properties));
+	}
+
+	/**
+	 * Reemplaza todas las propiedades.
+	 * @param properties Nuevas propiedades
+	 * @return Propiedades anteriores.
+	 */
+	public PropertiesSnapshot replace(PropertiesSnapshot properties) {
+		if (properties == null) {
+			throw new NullPointerException("properties");
+		}
+		synchronized (lock) {
+			PropertiesSnapshot previous = snapshot;
+			snapshot = properties;
+			return previous;
+		}
+	}
+
+	public void clear() {
+		replace(PropertiesSnapshot.EMPTY);
+	}
+
+	/**
+	 * Carga propiedades con el formato de {@link Properties#load(Reader)},
+	 * publicando una sola copia al terminar.
+	 * @param reader Origen
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public void load(Reader reader) throws IOException {
+		putAll(PropertiesParser.parse(reader));
+	}
+
+	/**
+	 * Carga propiedades con el formato de {@link Properties#load(InputStream)},
+	 * publicando una sola copia al terminar.
+	 * @param in Origen en ISO 8859-1
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public void load(InputStream in) throws IOException {
+		putAll(PropertiesParser.parse(in));
+	}
+
+	/**
+	 * Carga un archivo mapeado en memoria, publicando una sola copia al terminar.
+	 * @param file Archivo
+	 * @param charset Charset del archivo
+	 * @param parallel {@code true} para procesar archivos grandes en paralelo.
+	 * @throws IOException Si ocurre un error de lectura.
+	 * @see PropertiesParser#load(Path, Charset, boolean)
+	 */
+	public void load(Path file, Charset charset, boolean parallel) throws IOException {
+		putAll(PropertiesParser.load(file, charset, parallel));
+	}
+
+	/**
+	 * Guarda las propiedades en orden de declaración.
+	 * @see OrderedProperties#store(Writer, String)
+	 */
+	public void store(Writer writer, String comments) throws IOException {
+		PropertiesWriter.write(writer, snapshot, comments, false);
+	}
+
+	/**
+	 * Guarda las propiedades en orden de declaración.
+	 * @see OrderedProperties#store(OutputStream, String)
+	 */
+	public void store(OutputStream out, String comments) throws IOException {
+		PropertiesWriter.write(out, snapshot, comments, false);
+	}
+
+	/**
+	 * @return Copia como {@link OrderedProperties}.
+	 */
+	public OrderedProperties toProperties() {
+		return snapshot.toProperties();
+	}
+
+	@Override
+	public String toString() {
+		return snapshot.toString();
+	}
+}
@@ -5,21 +5,36 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extensión a implementación de {@link Properties} para 
  * persistir propiedades en orden de declaración.
  * Se sobreescribe la implementacion original de guardado
  * para omitir escape de caracteres especiales.
+ * <p>
+ * Los accesores tipados ({@link #getInt(String, int)}, {@link #getDuration(String, Duration)},
+ * etc.) guardan el valor convertido por clave; consultas siguientes solo leen
+ * el valor original para confirmar que no cambió. {@link #put(Object, Object)},
+ * {@link #remove(Object)} y {@link #clear()} descartan las conversiones.
+ * </p>
  * 
  * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
  * @version 1.0 2017.12
+ * @version 1.1 2026.10 Agregando escritura sin concatenación, ver {@link PropertiesWriter}
+ * @version 1.2 2026.10 Agregando accesores tipados con caché de conversiones
  *
  */
 public class OrderedProperties extends Properties{
@@ -30,6 +45,10 @@ public class OrderedProperties extends Properties{
 	 * Mantiene propiedade en el orden en que se agregan.
 	 */
 	private final HashSet<Object> keys = new LinkedHashSet<Object>();
+	/**
+	 * Valores convertidos por clave; se crea al primer acceso tipado.
+	 */
+	private transient volatile ConcurrentHashMap<String, Converted> converted;
 	
     public OrderedProperties() {
     	super();
@@ -45,10 +64,288 @@ public class OrderedProperties extends Properties{
     }
 
     @Override
-    public Object put(Object key, Object value) {
+    public synchronized Object put(Object key, Object value) {
         keys.add(key);
+        invalidate(key);
         return super.put(key, value);
     }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        keys.remove(key);
+        invalidate(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        keys.clear();
+        final ConcurrentHashMap<String, Converted> cache = converted;
+        if (cache != null) {
+            cache.clear();
+        }
+        super.clear();
+    }
+
+    private void invalidate(Object key) {
+        final ConcurrentHashMap<String, Converted> cache = converted;
+        if (cache != null) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Valor como {@code int}.
+     * @throws NumberFormatException Si el valor no es un entero.
+     */
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, Converted.INT, defaultValue);
+    }
+
+    /**
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Valor como {@code long}.
+     * @throws NumberFormatException Si el valor no es un entero.
+     */
+    public long getLong(String key, long defaultValue) {
+        return getLong(key, Converted.LONG, defaultValue);
+    }
+
+    /**
+     * Acepta {@code true/false}, {@code yes/no} y {@code on/off}, sin distinguir mayúsculas.
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Valor como {@code boolean}.
+     * @throws IllegalArgumentException Si el valor no es booleano.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getLong(key, Converted.BOOLEAN, defaultValue ? 1L : 0L) != 0L;
+    }
+
+    /**
+     * Tamaño en bytes con unidad binaria opcional: {@code 512}, {@code 64k},
+     * {@code 16MB}, {@code 2GiB}, {@code 1t}.
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Tamaño en bytes
+     * @throws IllegalArgumentException Si el valor no es un tamaño.
+     */
+    public long getSize(String key, long defaultValue) {
+        return getLong(key, Converted.SIZE, defaultValue);
+    }
+
+    /**
+     * Duración ISO-8601 ({@code PT30S}) o número con unidad: {@code ns},
+     * {@code us}, {@code ms}, {@code s}, {@code m}, {@code h}, {@code d}.
+     * Un número sin unidad son milisegundos.
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Duración
+     * @throws IllegalArgumentException Si el valor no es una duración.
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        final Duration value = (Duration) getObject(key, Converted.DURATION);
+        return (value == null) ? defaultValue : value;
+    }
+
+    /**
+     * Duración en milisegundos, sin crear objetos en consultas siguientes.
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Duración en milisegundos
+     * @throws IllegalArgumentException Si el valor no es una duración.
+     * @see #getDuration(String, Duration)
+     */
+    public long getMillis(String key, long defaultValue) {
+        return getLong(key, Converted.MILLIS, defaultValue);
+    }
+
+    /**
+     * Lista separada por comas; los elementos se recortan y se omiten los vacíos.
+     * @param key Clave
+     * @param defaultValue Valor si no existe la clave.
+     * @return Lista no modificable
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getList(String key, List<String> defaultValue) {
+        final List<String> value = (List<String>) getObject(key, Converted.LIST);
+        return (value == null) ? defaultValue : value;
+    }
+
+    private long getLong(String key, int type, long defaultValue) {
+        final String raw = getProperty(key);
+        if (raw == null) {
+            return defaultValue;
+        }
+        final Converted cached = cache().get(key);
+        if (cached != null && cached.raw == raw && cached.type == type) {
+            return cached.primitive;
+        }
+        return convert(key, raw, type).primitive;
+    }
+
+    private Object getObject(String key, int type) {
+        final String raw = getProperty(key);
+        if (raw == null) {
+            return null;
+        }
+        final Converted cached = cache().get(key);
+        if (cached != null && cached.raw == raw && cached.type == type) {
+            return cached.value;
+        }
+        return convert(key, raw, type).value;
+    }
+
+    private ConcurrentHashMap<String, Converted> cache() {
+        ConcurrentHashMap<String, Converted> cache = converted;
+        if (cache == null) {
+            synchronized (this) {
+                if ((cache = converted) == null) {
+                    converted = cache = new ConcurrentHashMap<String, Converted>();
+                }
+            }
+        }
+        return cache;
+    }
+
+    private Converted convert(String key, String raw, int type) {
+        final String value = raw.trim();
+        final Converted result;
+        try {
+            switch (type) {
+            case Converted.INT:
+                result = new Converted(raw, type, Integer.parseInt(value), null);
+                break;
+            case Converted.LONG:
+                result = new Converted(raw, type, Long.parseLong(value), null);
+                break;
+            case Converted.BOOLEAN:
+                result = new Converted(raw, type, parseBoolean(value) ? 1L : 0L, null);
+                break;
+            case Converted.SIZE:
+                result = new Converted(raw, type, parseSize(value), null);
+                break;
+            case Converted.DURATION:
+                result = new Converted(raw, type, 0L, parseDuration(value));
+                break;
+            case Converted.MILLIS:
+                result = new Converted(raw, type, parseDuration(value).toMillis(), null);
+                break;
+            default:
+                result = new Converted(raw, type, 0L, parseList(value));
+                break;
+            }
+        } catch (NumberFormatException e) {
+            NumberFormatException error = new NumberFormatException("Invalid value for " + key + ": " + raw);
+            error.initCause(e);
+            throw error;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + raw, e);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + raw, e);
+        }
+        cache().put(key, result);
+        return result;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value) || "yes".equalsIgnoreCase(value) || "on".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value) || "no".equalsIgnoreCase(value) || "off".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    /**
+     * @return Posición donde inicia la unidad.
+     */
+    private static int unitStart(String value) {
+        int i = 0;
+        if (i < value.length() && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static long parseSize(String value) {
+        final int i = unitStart(value);
+        final long number = Long.parseLong(value.substring(0, i));
+        final String unit = value.substring(i).trim().toLowerCase(Locale.ROOT);
+        final int shift;
+        if (unit.isEmpty() || "b".equals(unit)) {
+            shift = 0;
+        } else if ("k".equals(unit) || "kb".equals(unit) || "kib".equals(unit)) {
+            shift = 10;
+        } else if ("m".equals(unit) || "mb".equals(unit) || "mib".equals(unit)) {
+            shift = 20;
+        } else if ("g".equals(unit) || "gb".equals(unit) || "gib".equals(unit)) {
+            shift = 30;
+        } else if ("t".equals(unit) || "tb".equals(unit) || "tib".equals(unit)) {
+            shift = 40;
+        } else {
+            throw new IllegalArgumentException("unit: " + unit);
+        }
+        if (shift > 0 && (number > (Long.MAX_VALUE >> shift) || number < (Long.MIN_VALUE >> shift))) {
+            throw new ArithmeticException("long overflow");
+        }
+        return number << shift;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (!value.isEmpty() && (value.charAt(0) == 'P' || value.charAt(0) == 'p' || value.startsWith("-P") || value.startsWith("-p"))) {
+            try {
+                return Duration.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        final int i = unitStart(value);
+        final long number = Long.parseLong(value.substring(0, i));
+        final String unit = value.substring(i).trim().toLowerCase(Locale.ROOT);
+        final ChronoUnit chronoUnit;
+        if ("ns".equals(unit)) {
+            chronoUnit = ChronoUnit.NANOS;
+        } else if ("us".equals(unit)) {
+            chronoUnit = ChronoUnit.MICROS;
+        } else if (unit.isEmpty() || "ms".equals(unit)) {
+            chronoUnit = ChronoUnit.MILLIS;
+        } else if ("s".equals(unit)) {
+            chronoUnit = ChronoUnit.SECONDS;
+        } else if ("m".equals(unit)) {
+            chronoUnit = ChronoUnit.MINUTES;
+        } else if ("h".equals(unit)) {
+            chronoUnit = ChronoUnit.HOURS;
+        } else if ("d".equals(unit)) {
+            chronoUnit = ChronoUnit.DAYS;
+        } else {
+            throw new IllegalArgumentException("unit: " + unit);
+        }
+        return Duration.of(number, chronoUnit);
+    }
+
+    private static List<String> parseList(String value) {
+        final List<String> list = new ArrayList<String>();
+        int start = 0;
+        for (int end; start <= value.length(); start = end + 1) {
+            end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            final String item = value.substring(start, end).trim();
+            if (!item.isEmpty()) {
+                list.add(item);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
     
     @Override
     public void store(Writer writer, String comments) throws IOException {
@@ -70,81 +367,52 @@ public class OrderedProperties extends Properties{
         throws IOException
     {
         if (comments != null) {
-            writeComments(bw, comments);
+            PropertiesWriter.writeComments(bw, comments);
         }
-        bw.write("#" + new Date().toString());
+        bw.write('#');
+        bw.write(new Date().toString());
         bw.newLine();
         synchronized (this) {
             for (Enumeration e = keys(); e.hasMoreElements();) {
                 String key = (String)e.nextElement();
                 String val = (String)get(key);
+                if (val == null) {
+                    continue;
+                }
                 // Commented out to stop '/' or ':' chars being replaced
                 //key = saveConvert(key, true, escUnicode);
                 //val = saveConvert(val, false, escUnicode);
-                bw.write(key + "=" + val);
+                bw.write(key);
+                bw.write('=');
+                bw.write(val);
                 bw.newLine();
             }
         }
         bw.flush();
     }
-     
+
     /**
-     * Implementación privada en {@link Properties}.
+     * Valor convertido y el valor original del que proviene.
      */
-    private static void writeComments(BufferedWriter bw, String comments)
-        throws IOException {
-        bw.write("#");
-        int len = comments.length();
-        int current = 0;
-        int last = 0;
-        char[] uu = new char[6];
-        uu[0] = '\\';
-        uu[1] = 'u';
-        while (current < len) {
-            char c = comments.charAt(current);
-            if (c > '\u00ff' || c == '\n' || c == '\r') {
-                if (last != current)
-                    bw.write(comments.substring(last, current));
-                if (c > '\u00ff') {
-                    uu[2] = toHex((c >> 12) & 0xf);
-                    uu[3] = toHex((c >>  8) & 0xf);
-                    uu[4] = toHex((c >>  4) & 0xf);
-                    uu[5] = toHex( c        & 0xf);
-                    bw.write(new String(uu));
-                } else {
-                    bw.newLine();
-                    if (c == '\r' &&
-                        current != len - 1 &&
-                        comments.charAt(current + 1) == '\n') {
-                        current++;
-                    }
-                    if (current == len - 1 ||
-                        (comments.charAt(current + 1) != '#' &&
-                        comments.charAt(current + 1) != '!'))
-                        bw.write("#");
-                }
-                last = current + 1;
-            }
-            current++;
+    private static final class Converted {
+        static final int INT = 0;
+        static final int LONG = 1;
+        static final int BOOLEAN = 2;
+        static final int SIZE = 3;
+        static final int DURATION = 4;
+        static final int MILLIS = 5;
+        static final int LIST = 6;
+
+        final String raw;
+        final int type;
+        final long primitive;
+        final Object value;
+
+        Converted(String raw, int type, long primitive, Object value) {
+            this.raw = raw;
+            this.type = type;
+            this.primitive = primitive;
+            this.value = value;
         }
-        if (last != current)
-            bw.write(comments.substring(last, current));
-        bw.newLine();
-    }
-    
-    /**
-     * Implementación privada en {@link Properties}.
-     * Convert a nibble to a hex character
-     * @param   nibble  the nibble to convert.
-     */
-    private static char toHex(int nibble) {
-        return hexDigit[(nibble & 0xF)];
     }
-
-    /**
-     * Implementación privada en {@link Properties}. 
-     * A table of hex digits */
-    private static final char[] hexDigit = {
-        '0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F'
-    };
 }
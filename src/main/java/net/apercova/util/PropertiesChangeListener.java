@@ -0,0 +1,28 @@
+package net.apercova.util;
+
+import java.nio.file.Path;
+
+/**
+ * Recibe los cambios publicados por {@link ReloadableOrderedProperties}.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Notificando errores de recarga sin archivo asociado
+ */
+public interface PropertiesChangeListener {
+
+	/**
+	 * Se invoca después de publicar un snapshot con cambios.
+	 * @param diff Claves agregadas, modificadas y eliminadas.
+	 */
+	void propertiesChanged(PropertiesDiff diff);
+
+	/**
+	 * Se invoca si un archivo no pudo leerse, o si la recarga automática falló
+	 * por otra causa; se conservan las propiedades anteriores.
+	 * @param file Archivo, o {@code null} si el error no corresponde a un archivo.
+	 * @param error Error de lectura; un {@link Error} se recibe como causa de una
+	 *        {@link java.util.concurrent.ExecutionException}.
+	 */
+	default void reloadFailed(Path file, Exception error) {
+	}
+}
@@ -0,0 +1,63 @@
+package net.apercova.util;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compila archivos {@code .properties} a un {@link PropertiesSnapshotFile},
+ * para generar snapshots en tiempo de construcción.
+ * Los archivos se combinan en orden: los posteriores sobrescriben los valores
+ * de los anteriores, como en {@link ReloadableOrderedProperties}.
+ * <pre>
+ * Uso:
+ * {@code
+ *  java net.apercova.util.PropertiesCompiler [-charset UTF-8] config.psnap base.properties override.properties
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public class PropertiesCompiler {
+
+	private PropertiesCompiler() {
+	}
+
+	/**
+	 * @param output Snapshot a generar
+	 * @param charset Charset de los archivos
+	 * @param inputs Archivos de propiedades, en orden de prioridad creciente.
+	 * @return Propiedades compiladas
+	 * @throws IOException Si un archivo no puede leerse o escribirse.
+	 */
+	public static PropertiesSnapshot compile(Path output, Charset charset, Path... inputs) throws IOException {
+		PropertiesSnapshot properties = PropertiesSnapshot.EMPTY;
+		for (Path input : inputs) {
+			properties = properties.withAll(PropertiesParser.load(input, charset, true));
+		}
+		PropertiesSnapshotFile.save(properties, output);
+		return properties;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Charset charset = StandardCharsets.ISO_8859_1;
+		int i = 0;
+		if (args.length > 1 && "-charset".equals(args[0])) {
+			charset = Charset.forName(args[1]);
+			i = 2;
+		}
+		if (args.length - i < 2) {
+			System.err.println("Usage: PropertiesCompiler [-charset NAME] OUTPUT" + PropertiesSnapshotFile.SUFFIX + " INPUT.properties...");
+			System.exit(2);
+		}
+		Path output = Paths.get(args[i++]);
+		Path[] inputs = new Path[args.length - i];
+		for (int k = 0; k < inputs.length; k++) {
+			inputs[k] = Paths.get(args[i + k]);
+		}
+		PropertiesSnapshot properties = compile(output, charset, inputs);
+		System.out.println(output + ": " + properties.size() + " properties");
+	}
+}
@@ -0,0 +1,121 @@
+package net.apercova.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diferencia por clave entre dos {@link PropertiesSnapshot}: claves
+ * agregadas, modificadas y eliminadas, en orden de declaración.
+ * Los valores anteriores y nuevos se consultan en {@link #getBefore()} y
+ * {@link #getAfter()}.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public final class PropertiesDiff {
+
+	private final PropertiesSnapshot before;
+	private final PropertiesSnapshot after;
+	private final List<String> added;
+	private final List<String> changed;
+	private final List<String> removed;
+
+	private PropertiesDiff(PropertiesSnapshot before, PropertiesSnapshot after, List<String> added, List<String> changed, List<String> removed) {
+		this.before = before;
+		this.after = after;
+		this.added = Collections.unmodifiableList(added);
+		this.changed = Collections.unmodifiableList(changed);
+		this.removed = Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * @param before Propiedades anteriores
+	 * @param after Propiedades nuevas
+	 * @return Diferencia
+	 */
+	public static PropertiesDiff between(PropertiesSnapshot before, PropertiesSnapshot after) {
+		if (before == null) {
+			throw new NullPointerException("before");
+		}
+		if (after == null) {
+			throw new NullPointerException("after");
+		}
+		List<String> added = new ArrayList<String>();
+		List<String> changed = new ArrayList<String>();
+		List<String> removed = new ArrayList<String>();
+		if (before != after) {
+			for (int i = 0; i < after.size(); i++) {
+				final String key = after.keyAt(i);
+				final int j = before.indexOf(key);
+				if (j < 0) {
+					added.add(key);
+				} else if (!before.valueAt(j).equals(after.valueAt(i))) {
+					changed.add(key);
+				}
+			}
+			if (before.size() + added.size() != after.size()) {
+				for (int i = 0; i < before.size(); i++) {
+					final String key = before.keyAt(i);
+					if (!after.containsKey(key)) {
+						removed.add(key);
+					}
+				}
+			}
+		}
+		return new PropertiesDiff(before, after, added, changed, removed);
+	}
+
+	public PropertiesSnapshot getBefore() {
+		return before;
+	}
+
+	public PropertiesSnapshot getAfter() {
+		return after;
+	}
+
+	/**
+	 * @return Claves nuevas, en orden de {@link #getAfter()}.
+	 */
+	public List<String> added() {
+		return added;
+	}
+
+	/**
+	 * @return Claves con valor distinto, en orden de {@link #getAfter()}.
+	 */
+	public List<String> changed() {
+		return changed;
+	}
+
+	/**
+	 * @return Claves eliminadas, en orden de {@link #getBefore()}.
+	 */
+	public List<String> removed() {
+		return removed;
+	}
+
+	/**
+	 * @return {@code true} si no hay cambios.
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+	}
+
+	/**
+	 * @param key Clave
+	 * @return {@code true} si la clave fue agregada, modificada o eliminada.
+	 */
+	public boolean affects(String key) {
+		final int i = before.indexOf(key);
+		final int j = after.indexOf(key);
+		if (i < 0 || j < 0) {
+			return i != j;
+		}
+		return !before.valueAt(i).equals(after.valueAt(j));
+	}
+
+	@Override
+	public String toString() {
+		return "+" + added + " ~" + changed + " -" + removed;
+	}
+}
@@ -0,0 +1,478 @@
+package net.apercova.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Lector de propiedades con el formato de {@link java.util.Properties#load(Reader)},
+ * en orden de declaración.
+ * <p>
+ * Trabaja directamente sobre un {@link CharSequence}, por ejemplo un
+ * {@link CharBuffer} o un archivo mapeado en memoria, y solo crea las cadenas
+ * finales de cada clave y valor: las líneas lógicas se arman en un arreglo
+ * reutilizable y las secuencias de escape se resuelven sobre otro.
+ * La carga en paralelo divide el texto en líneas que no continúan la anterior,
+ * procesa cada tramo en un {@link ForkJoinPool} y los une en orden, de modo que
+ * se conserva el orden de declaración y la última asignación de cada clave.
+ * </p>
+ * <pre>
+ * Uso:
+ * {@code
+ *  PropertiesSnapshot config = PropertiesParser.load(path, StandardCharsets.ISO_8859_1, true);
+ *  OrderedProperties properties = config.toProperties();
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Corrigiendo la división de líneas continuadas
+ * @version 1.2 2026.10 Agregando {@link #read(Path, Charset)} sin mapeo en memoria
+ */
+public final class PropertiesParser {
+
+	/**
+	 * Tamaño mínimo de cada tramo en la carga en paralelo.
+	 */
+	public static final int MIN_PARALLEL_SIZE = 1 << 20;
+
+	/**
+	 * Línea lógica actual, sin continuaciones ni espacios iniciales.
+	 */
+	private char[] line = new char[256];
+	private int length;
+	/**
+	 * Resultado de resolver escapes.
+	 */
+	private char[] converted = new char[256];
+
+	private PropertiesParser() {
+	}
+
+	/**
+	 * @param text Texto
+	 * @return Propiedades en orden de declaración.
+	 * @throws IllegalArgumentException Si hay una secuencia {@code \}{@code uxxxx} mal formada.
+	 */
+	public static PropertiesSnapshot parse(CharSequence text) {
+		return parse(text, false);
+	}
+
+	/**
+	 * @param text Texto
+	 * @param parallel {@code true} para procesar en el {@link ForkJoinPool} común.
+	 * @return Propiedades en orden de declaración.
+	 * @throws IllegalArgumentException Si hay una secuencia {@code \}{@code uxxxx} mal formada.
+	 */
+	public static PropertiesSnapshot parse(CharSequence text, boolean parallel) {
+		final CharBuffer chars = (text instanceof CharBuffer && ((CharBuffer) text).hasArray())
+			? (CharBuffer) text
+			: CharBuffer.wrap(text.toString().toCharArray());
+		return parse(chars.array(), chars.arrayOffset() + chars.position(), chars.arrayOffset() + chars.limit(), parallel);
+	}
+
+	private static PropertiesSnapshot parse(char[] text, int start, int end, boolean parallel) {
+		if (!parallel || end - start < 2 * MIN_PARALLEL_SIZE) {
+			final PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder();
+			new PropertiesParser().parse(text, start, end, new BiConsumer<String, String>() {
+				@Override
+				public void accept(String key, String value) {
+					builder.put(key, value);
+				}
+			});
+			return builder.build();
+		}
+		final int[] bounds = split(text, start, end, Math.max(MIN_PARALLEL_SIZE, (end - start) / (ForkJoinPool.getCommonPoolParallelism() * 4)));
+		final Entries[] entries = new Entries[bounds.length - 1];
+		ForkJoinPool.commonPool().invoke(new ParseAction(text, bounds, entries, 0, entries.length));
+		int size = 0;
+		for (Entries e : entries) {
+			size += e.size;
+		}
+		PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder(size / 2);
+		for (Entries e : entries) {
+			for (int i = 0; i < e.size; i += 2) {
+				builder.put(e.data[i], e.data[i + 1]);
+			}
+		}
+		final PropertiesSnapshot snapshot = builder.build();
+		//con -ea se verifica que la división en tramos no altera el resultado
+		assert snapshot.equals(parse(text, start, end, false)) : "Parallel parse differs from serial parse";
+		return snapshot;
+	}
+
+	/**
+	 * Lee todo el contenido y lo procesa.
+	 * @param reader Origen
+	 * @return Propiedades en orden de declaración.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public static PropertiesSnapshot parse(Reader reader) throws IOException {
+		char[] buffer = new char[8192];
+		int n = 0;
+		int r;
+		while ((r = reader.read(buffer, n, buffer.length - n)) >= 0) {
+			n += r;
+			if (n == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+		}
+		return parse(buffer, 0, n, false);
+	}
+
+	/**
+	 * @param in Origen en ISO 8859-1, como {@link java.util.Properties#load(InputStream)}.
+	 * @return Propiedades en orden de declaración.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public static PropertiesSnapshot parse(InputStream in) throws IOException {
+		return parse(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * Carga un archivo mapeado en memoria, decodificado directamente del mapeo
+	 * en un solo {@link CharBuffer} y reemplazando entradas mal formadas.
+	 * Un archivo truncado por otro proceso durante la carga provoca un
+	 * {@link InternalError}; para archivos que pueden reescribirse mientras se
+	 * leen usar {@link #read(Path, Charset)}.
+	 * @param file Archivo
+	 * @param charset Charset del archivo
+	 * @param parallel {@code true} para procesar en el {@link ForkJoinPool} común.
+	 * @return Propiedades en orden de declaración.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public static PropertiesSnapshot load(Path file, Charset charset, boolean parallel) throws IOException {
+		if (charset == null) {
+			throw new NullPointerException("charset");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large: " + size);
+			}
+			final ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return parse(decode(bytes, charset), parallel);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Lee un archivo completo a memoria del heap, sin mapearlo, y lo procesa
+	 * en el hilo actual reemplazando entradas mal formadas. Un archivo
+	 * reescrito durante la lectura produce a lo sumo contenido incompleto.
+	 * @param file Archivo
+	 * @param charset Charset del archivo
+	 * @return Propiedades en orden de declaración.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	public static PropertiesSnapshot read(Path file, Charset charset) throws IOException {
+		if (charset == null) {
+			throw new NullPointerException("charset");
+		}
+		return parse(decode(ByteBuffer.wrap(Files.readAllBytes(file)), charset), false);
+	}
+
+	private static CharBuffer decode(ByteBuffer bytes, Charset charset) throws IOException {
+		return charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE)
+			.decode(bytes);
+	}
+
+	/**
+	 * Procesa un tramo que inicia al principio de una línea.
+	 * @param text Texto
+	 * @param start Inicio del tramo
+	 * @param end Fin del tramo
+	 * @param action Recibe cada clave y valor en orden de declaración.
+	 */
+	private void parse(char[] text, int start, int end, BiConsumer<String, String> action) {
+		int i = start;
+		while (i < end) {
+			i = readLine(text, i, end);
+			if (length < 0) {
+				break;
+			}
+			int keyLength = 0;
+			int valueStart = length;
+			boolean hasSeparator = false;
+			boolean precedingBackslash = false;
+			while (keyLength < length) {
+				final char c = line[keyLength];
+				if ((c == '=' || c == ':') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					hasSeparator = true;
+					break;
+				} else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					break;
+				}
+				precedingBackslash = (c == '\\') && !precedingBackslash;
+				keyLength++;
+			}
+			while (valueStart < length) {
+				final char c = line[valueStart];
+				if (c != ' ' && c != '\t' && c != '\f') {
+					if (!hasSeparator && (c == '=' || c == ':')) {
+						hasSeparator = true;
+					} else {
+						break;
+					}
+				}
+				valueStart++;
+			}
+			final String key = convert(0, keyLength);
+			action.accept(key, convert(valueStart, length - valueStart));
+		}
+	}
+
+	/**
+	 * Arma la siguiente línea lógica en {@link #line}, como el
+	 * {@code LineReader} de {@link java.util.Properties}.
+	 * @return Posición siguiente; {@link #length} es {@code -1} si no hay más líneas.
+	 */
+	private int readLine(char[] text, int i, int end) {
+		length = 0;
+		boolean skipWhiteSpace = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+		boolean skipLF = false;
+		while (true) {
+			if (i >= end) {
+				if (length == 0) {
+					length = -1;
+				} else if (precedingBackslash) {
+					length--;
+				}
+				return i;
+			}
+			final char c = text[i++];
+			if (skipLF) {
+				skipLF = false;
+				if (c == '\n') {
+					continue;
+				}
+			}
+			if (skipWhiteSpace) {
+				if (c == ' ' || c == '\t' || c == '\f') {
+					continue;
+				}
+				if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+					continue;
+				}
+				skipWhiteSpace = false;
+				appendedLineBegin = false;
+			}
+			if (length == 0 && (c == '#' || c == '!')) {
+				//comments are not continued
+				while (i < end && text[i] != '\n' && text[i] != '\r') {
+					i++;
+				}
+				skipWhiteSpace = true;
+				continue;
+			}
+			if (c != '\n' && c != '\r') {
+				if (length == line.length) {
+					line = Arrays.copyOf(line, length * 2);
+				}
+				line[length++] = c;
+				precedingBackslash = (c == '\\') && !precedingBackslash;
+			} else if (length == 0) {
+				skipWhiteSpace = true;
+			} else if (i >= end) {
+				if (precedingBackslash) {
+					length--;
+				}
+				return i;
+			} else if (precedingBackslash) {
+				//continuation line
+				length--;
+				skipWhiteSpace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				skipLF = (c == '\r');
+			} else {
+				if (c == '\r' && i < end && text[i] == '\n') {
+					i++;
+				}
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Resuelve secuencias de escape de un tramo de {@link #line}.
+	 */
+	private String convert(int offset, int len) {
+		int i = offset;
+		final int end = offset + len;
+		while (i < end && line[i] != '\\') {
+			i++;
+		}
+		if (i == end) {
+			return new String(line, offset, len);
+		}
+		if (converted.length < len) {
+			converted = new char[Math.max(len, converted.length * 2)];
+		}
+		int n = i - offset;
+		System.arraycopy(line, offset, converted, 0, n);
+		while (i < end) {
+			char c = line[i++];
+			if (c == '\\' && i < end) {
+				c = line[i++];
+				if (c == 'u') {
+					if (i + 4 > end) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+					int value = 0;
+					for (int k = 0; k < 4; k++) {
+						final int digit = Character.digit(line[i++], 16);
+						if (digit < 0) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						value = (value << 4) | digit;
+					}
+					c = (char) value;
+				} else if (c == 't') {
+					c = '\t';
+				} else if (c == 'r') {
+					c = '\r';
+				} else if (c == 'n') {
+					c = '\n';
+				} else if (c == 'f') {
+					c = '\f';
+				}
+			}
+			converted[n++] = c;
+		}
+		return new String(converted, 0, n);
+	}
+
+	/**
+	 * Divide el texto al inicio de líneas que no continúan la anterior.
+	 * @return Límites de los tramos, del inicio al fin del texto.
+	 */
+	static int[] split(char[] text, int start, int end, int target) {
+		List<Integer> bounds = new ArrayList<Integer>();
+		bounds.add(start);
+		int position = start + target;
+		while (position < end) {
+			int next = nextSafeLine(text, start, position, end);
+			if (next >= end) {
+				break;
+			}
+			bounds.add(next);
+			position = next + target;
+		}
+		bounds.add(end);
+		int[] result = new int[bounds.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = bounds.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Busca el inicio de una línea cuya línea física anterior no termina en
+	 * un número impar de {@code \}, es decir, que no es continuación.
+	 * Las diagonales se cuentan hacia atrás hasta {@code start} y no sólo
+	 * hasta {@code from}, que puede caer en cualquier punto de una línea.
+	 * @param start Inicio del texto
+	 * @param from Posición desde la que se busca
+	 */
+	private static int nextSafeLine(char[] text, int start, int from, int end) {
+		int i = from;
+		while (i < end) {
+			while (i < end && text[i] != '\n' && text[i] != '\r') {
+				i++;
+			}
+			if (i >= end) {
+				return end;
+			}
+			//un \n precedido de \r termina la misma línea
+			int k = (text[i] == '\n' && i > start && text[i - 1] == '\r') ? i - 2 : i - 1;
+			int backslashes = 0;
+			for (; k >= start && text[k] == '\\'; k--) {
+				backslashes++;
+			}
+			if (text[i] == '\r' && i + 1 < end && text[i + 1] == '\n') {
+				i++;
+			}
+			i++;
+			if ((backslashes & 1) == 0) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * Claves y valores alternados de un tramo.
+	 */
+	static final class Entries implements BiConsumer<String, String> {
+		String[] data = new String[64];
+		int size;
+
+		@Override
+		public void accept(String key, String value) {
+			if (size + 2 > data.length) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			data[size++] = key;
+			data[size++] = value;
+		}
+	}
+
+	static final class ParseAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final char[] text;
+		private final int[] bounds;
+		private final Entries[] entries;
+		private final int from;
+		private final int to;
+
+		ParseAction(char[] text, int[] bounds, Entries[] entries, int from, int to) {
+			this.text = text;
+			this.bounds = bounds;
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				Entries e = new Entries();
+				new PropertiesParser().parse(text, bounds[from], bounds[from + 1], e);
+				entries[from] = e;
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			ParseAction r1 = new ParseAction(text, bounds, entries, from, mid);
+			ParseAction r2 = new ParseAction(text, bounds, entries, mid, to);
+			r2.fork();
+			r1.compute();
+			r2.join();
+		}
+	}
+}
@@ -0,0 +1,454 @@
+package net.apercova.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+
+/**
+ * Conjunto inmutable de propiedades en orden de declaración.
+ * <p>
+ * Las claves y valores se guardan en arreglos paralelos, en orden, y se
+ * indexan con una tabla de direccionamiento abierto (sondeo lineal) que
+ * guarda la posición de cada clave, sin nodos ni candados. Al ser inmutable,
+ * puede leerse desde cualquier número de hilos sin sincronización.
+ * Las modificaciones ({@link #with(String, String)}, {@link #without(String)})
+ * devuelven una copia; una actualización de valor comparte claves e índice
+ * con el original.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Agregando acceso al índice para {@link PropertiesSnapshotFile}
+ */
+public final class PropertiesSnapshot implements Iterable<Map.Entry<String, String>> {
+
+	public static final PropertiesSnapshot EMPTY = new PropertiesSnapshot(new String[0], new String[0]);
+
+	private final String[] keys;
+	private final String[] values;
+	/**
+	 * Posición + 1 de cada clave; 0 indica una ranura vacía.
+	 */
+	private final int[] table;
+
+	private PropertiesSnapshot(String[] keys, String[] values) {
+		this(keys, values, index(keys, keys.length));
+	}
+
+	private PropertiesSnapshot(String[] keys, String[] values, int[] table) {
+		this.keys = keys;
+		this.values = values;
+		this.table = table;
+	}
+
+	/**
+	 * Crea un snapshot con un índice ya construido, sin copiar los arreglos.
+	 * @param table Índice con el formato de {@link #table()}
+	 */
+	static PropertiesSnapshot of(String[] keys, String[] values, int[] table) {
+		return new PropertiesSnapshot(keys, values, table);
+	}
+
+	/**
+	 * @return Índice de direccionamiento abierto; no debe modificarse.
+	 */
+	int[] table() {
+		return table;
+	}
+
+	/**
+	 * Tamaño de tabla, potencia de 2 con factor de carga máximo de 1/2.
+	 */
+	static int tableSize(int size) {
+		int capacity = 2;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Ranura inicial por hash multiplicativo (Fibonacci), que dispersa los
+	 * hashes consecutivos de claves como {@code key.1}, {@code key.2}.
+	 * @param hash {@link String#hashCode()} de la clave
+	 * @param tableLength Tamaño de tabla, potencia de 2
+	 */
+	static int slot(int hash, int tableLength) {
+		return (hash * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(tableLength) + 1);
+	}
+
+	/**
+	 * Copia las propiedades de tipo {@link String}, en el orden de
+	 * {@link Properties#keys()}; para {@link OrderedProperties} es el orden de
+	 * declaración. No incluye los valores por defecto.
+	 * @param properties Propiedades
+	 * @return Snapshot
+	 */
+	public static PropertiesSnapshot of(Properties properties) {
+		Builder builder = new Builder();
+		synchronized (properties) {
+			for (Enumeration<Object> e = properties.keys(); e.hasMoreElements();) {
+				Object key = e.nextElement();
+				Object value = properties.get(key);
+				if (key instanceof String && value instanceof String) {
+					builder.put((String) key, (String) value);
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Copia un mapa en el orden de su iteración.
+	 * @param map Mapa
+	 * @return Snapshot
+	 */
+	public static PropertiesSnapshot of(Map<String, String> map) {
+		Builder builder = new Builder();
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			builder.put(entry.getKey(), entry.getValue());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return Número de propiedades.
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	public boolean isEmpty() {
+		return keys.length == 0;
+	}
+
+	/**
+	 * @param key Clave
+	 * @return Posición de la clave en orden de declaración o {@code -1}.
+	 */
+	public int indexOf(String key) {
+		return find(keys, table, key);
+	}
+
+	public boolean containsKey(String key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * @param key Clave
+	 * @return Valor o {@code null} si no existe la clave.
+	 */
+	public String get(String key) {
+		final int i = indexOf(key);
+		return (i < 0) ? null : values[i];
+	}
+
+	/**
+	 * @param key Clave
+	 * @param defaultValue Valor por defecto
+	 * @return Valor o {@code defaultValue} si no existe la clave.
+	 */
+	public String get(String key, String defaultValue) {
+		final int i = indexOf(key);
+		return (i < 0) ? defaultValue : values[i];
+	}
+
+	/**
+	 * @param index Posición en orden de declaración
+	 * @return Clave
+	 */
+	public String keyAt(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * @param index Posición en orden de declaración
+	 * @return Valor
+	 */
+	public String valueAt(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @return Claves en orden de declaración, no modificable.
+	 */
+	public List<String> keys() {
+		return Collections.unmodifiableList(Arrays.asList(keys));
+	}
+
+	/**
+	 * Recorre las propiedades en orden de declaración.
+	 * @param action Acción
+	 */
+	public void forEach(BiConsumer<? super String, ? super String> action) {
+		for (int i = 0; i < keys.length; i++) {
+			action.accept(keys[i], values[i]);
+		}
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, String>> iterator() {
+		return new Iterator<Map.Entry<String, String>>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < keys.length;
+			}
+
+			@Override
+			public Map.Entry<String, String> next() {
+				if (next >= keys.length) {
+					throw new NoSuchElementException();
+				}
+				Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<String, String>(keys[next], values[next]);
+				next++;
+				return entry;
+			}
+		};
+	}
+
+	/**
+	 * Asigna una propiedad. Una clave existente conserva su posición.
+	 * @param key Clave
+	 * @param value Valor
+	 * @return Copia con la propiedad asignada, o este snapshot si no cambia.
+	 */
+	public PropertiesSnapshot with(String key, String value) {
+		if (value == null) {
+			throw new NullPointerException("value");
+		}
+		final int i = indexOf(key);
+		if (i >= 0) {
+			if (value.equals(values[i])) {
+				return this;
+			}
+			String[] v = values.clone();
+			v[i] = value;
+			return new PropertiesSnapshot(keys, v, table);
+		}
+		final int n = keys.length;
+		String[] k = Arrays.copyOf(keys, n + 1);
+		String[] v = Arrays.copyOf(values, n + 1);
+		k[n] = key;
+		v[n] = value;
+		return new PropertiesSnapshot(k, v);
+	}
+
+	/**
+	 * Elimina una propiedad.
+	 * @param key Clave
+	 * @return Copia sin la propiedad, o este snapshot si no existe la clave.
+	 */
+	public PropertiesSnapshot without(String key) {
+		final int i = indexOf(key);
+		if (i < 0) {
+			return this;
+		}
+		final int n = keys.length;
+		String[] k = new String[n - 1];
+		String[] v = new String[n - 1];
+		System.arraycopy(keys, 0, k, 0, i);
+		System.arraycopy(values, 0, v, 0, i);
+		System.arraycopy(keys, i + 1, k, i, n - i - 1);
+		System.arraycopy(values, i + 1, v, i, n - i - 1);
+		return new PropertiesSnapshot(k, v);
+	}
+
+	/**
+	 * Asigna todas las propiedades de otro snapshot, en su orden.
+	 * @param other Propiedades
+	 * @return Copia con las propiedades asignadas.
+	 */
+	public PropertiesSnapshot withAll(PropertiesSnapshot other) {
+		if (other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		Builder builder = new Builder(this);
+		for (int i = 0; i < other.keys.length; i++) {
+			builder.put(other.keys[i], other.values[i]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return Copia como {@link OrderedProperties}.
+	 */
+	public OrderedProperties toProperties() {
+		OrderedProperties properties = new OrderedProperties();
+		for (int i = 0; i < keys.length; i++) {
+			properties.setProperty(keys[i], values[i]);
+		}
+		return properties;
+	}
+
+	/**
+	 * Dos snapshots son iguales si tienen las mismas propiedades en el mismo orden.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof PropertiesSnapshot)) {
+			return false;
+		}
+		PropertiesSnapshot other = (PropertiesSnapshot) obj;
+		return Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(keys[i]).append('=').append(values[i]);
+		}
+		return sb.append('}').toString();
+	}
+
+	private static int slot(String key, int[] table) {
+		return slot(key.hashCode(), table.length);
+	}
+
+	private static int[] index(String[] keys, int size) {
+		final int[] table = new int[tableSize(size)];
+		final int mask = table.length - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = slot(keys[i], table);
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i + 1;
+		}
+		return table;
+	}
+
+	private static int find(String[] keys, int[] table, String key) {
+		if (key == null) {
+			throw new NullPointerException("key");
+		}
+		final int mask = table.length - 1;
+		int slot = slot(key, table);
+		for (int e; (e = table[slot]) != 0; slot = (slot + 1) & mask) {
+			final String k = keys[e - 1];
+			if (k == key || k.equals(key)) {
+				return e - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Constructor incremental de {@link PropertiesSnapshot}, sin nodos por
+	 * propiedad. No es seguro entre hilos.
+	 */
+	public static final class Builder {
+
+		private String[] keys;
+		private String[] values;
+		private int[] table;
+		private int size;
+
+		public Builder() {
+			this(16);
+		}
+
+		/**
+		 * @param capacity Número esperado de propiedades.
+		 */
+		public Builder(int capacity) {
+			if (capacity < 0) {
+				throw new IllegalArgumentException("capacity");
+			}
+			keys = new String[Math.max(capacity, 1)];
+			values = new String[keys.length];
+			table = new int[tableSize(keys.length)];
+		}
+
+		/**
+		 * Inicia con las propiedades de un snapshot.
+		 * @param snapshot Propiedades iniciales
+		 */
+		public Builder(PropertiesSnapshot snapshot) {
+			this(snapshot.size() + 16);
+			for (int i = 0; i < snapshot.keys.length; i++) {
+				put(snapshot.keys[i], snapshot.values[i]);
+			}
+		}
+
+		/**
+		 * Asigna una propiedad. Una clave existente conserva su posición.
+		 * @param key Clave
+		 * @param value Valor
+		 * @return Este constructor.
+		 */
+		public Builder put(String key, String value) {
+			if (value == null) {
+				throw new NullPointerException("value");
+			}
+			final int i = find(keys, table, key);
+			if (i >= 0) {
+				values[i] = value;
+				return this;
+			}
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			keys[size] = key;
+			values[size] = value;
+			size++;
+			if (size * 2 > table.length) {
+				table = index(keys, size);
+			} else {
+				final int mask = table.length - 1;
+				int slot = slot(key, table);
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = size;
+			}
+			return this;
+		}
+
+		/**
+		 * @param key Clave
+		 * @return Valor asignado o {@code null}.
+		 */
+		public String get(String key) {
+			final int i = find(keys, table, key);
+			return (i < 0) ? null : values[i];
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return Snapshot con las propiedades asignadas; el constructor puede seguir usándose.
+		 */
+		public PropertiesSnapshot build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			return new PropertiesSnapshot(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+		}
+	}
+}
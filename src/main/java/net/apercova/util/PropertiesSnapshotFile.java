@@ -0,0 +1,346 @@
+package net.apercova.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binario versionado de {@link PropertiesSnapshot}, para cargar
+ * configuración al iniciar sin leer texto.
+ * <p>
+ * El archivo se mapea en memoria y se consulta en su lugar: el índice de
+ * direccionamiento abierto se guarda tal como lo usa {@link PropertiesSnapshot},
+ * junto con el hash de cada clave, de modo que una búsqueda solo decodifica
+ * la clave encontrada y su valor, y los guarda para consultas siguientes.
+ * {@link #toSnapshot()} decodifica todo reutilizando el índice.
+ * Las propiedades conservan el orden de declaración y el contenido se
+ * verifica con CRC-32. Aun sin verificarlo, al abrir se validan los límites
+ * del índice y de cada propiedad, de modo que un archivo dañado falla con
+ * {@link IOException} y no durante las consultas.
+ * </p>
+ * <pre>
+ * magic(4) version(1) reserved(3) count(4) tableSize(4) stringsSize(4) crc32(4)
+ * table: int[tableSize] posición + 1 de cada clave, 0 si la ranura está vacía
+ * hashes: int[count] {@link String#hashCode()} de cada clave
+ * entries: por propiedad keyOffset(4) keyLength(4) valueOffset(4) valueLength(4)
+ * strings: claves y valores en UTF-8
+ * </pre>
+ * Enteros en big-endian; el CRC-32 cubre todo lo que sigue al encabezado.
+ * <pre>
+ * Uso:
+ * {@code
+ *  PropertiesSnapshotFile.save(PropertiesParser.load(text, ISO_8859_1, true), snapshot);
+ *  ConcurrentOrderedProperties config = new ConcurrentOrderedProperties(PropertiesSnapshotFile.open(snapshot).toSnapshot());
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Validando índice y límites de propiedades al abrir
+ */
+public final class PropertiesSnapshotFile {
+
+	public static final String SUFFIX = ".psnap";
+	public static final int MAGIC = 0x41505053;
+	public static final byte VERSION = 1;
+
+	private static final int HEADER_SIZE = 24;
+	private static final int CRC_OFFSET = 20;
+	private static final int ENTRY_SIZE = 16;
+
+	private final ByteBuffer buffer;
+	private final int count;
+	private final int tableSize;
+	private final int hashesOffset;
+	private final int entriesOffset;
+	private final int stringsOffset;
+	/**
+	 * Cadenas ya decodificadas. Las escrituras concurrentes publican cadenas
+	 * iguales, como el hash de {@link String}.
+	 */
+	private final String[] keys;
+	private final String[] values;
+
+	private PropertiesSnapshotFile(ByteBuffer buffer, boolean verify) throws IOException {
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a properties snapshot");
+		}
+		final byte version = buffer.get(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported properties snapshot version: " + version);
+		}
+		this.buffer = buffer;
+		this.count = buffer.getInt(8);
+		this.tableSize = buffer.getInt(12);
+		final int stringsSize = buffer.getInt(16);
+		//every entry takes ENTRY_SIZE bytes, which also keeps tableSize(count) from overflowing
+		if (count < 0 || count > buffer.limit() / ENTRY_SIZE || tableSize != PropertiesSnapshot.tableSize(count) || stringsSize < 0) {
+			throw new IOException("Invalid properties snapshot");
+		}
+		if (HEADER_SIZE + 4L * tableSize + (4L + ENTRY_SIZE) * count + stringsSize != buffer.limit()) {
+			throw new IOException("Invalid properties snapshot size");
+		}
+		this.hashesOffset = HEADER_SIZE + 4 * tableSize;
+		this.entriesOffset = hashesOffset + 4 * count;
+		this.stringsOffset = entriesOffset + ENTRY_SIZE * count;
+		if (verify && checksum(buffer) != buffer.getInt(CRC_OFFSET)) {
+			throw new IOException("Corrupt properties snapshot");
+		}
+		validate(stringsSize);
+		this.keys = new String[count];
+		this.values = new String[count];
+	}
+
+	/**
+	 * Valida los límites que las consultas no verifican: cada ranura apunta a
+	 * una propiedad existente, quedan ranuras vacías que terminan la búsqueda
+	 * y cada cadena está dentro de la sección de cadenas.
+	 */
+	private void validate(int stringsSize) throws IOException {
+		int used = 0;
+		for (int slot = 0; slot < tableSize; slot++) {
+			final int e = buffer.getInt(HEADER_SIZE + 4 * slot);
+			if (e < 0 || e > count) {
+				throw new IOException("Invalid properties snapshot table slot: " + slot);
+			}
+			if (e != 0) {
+				used++;
+			}
+		}
+		if (used != count) {
+			throw new IOException("Invalid properties snapshot table");
+		}
+		for (int i = 0; i < 2 * count; i++) {
+			final int offset = buffer.getInt(entriesOffset + 8 * i);
+			final int length = buffer.getInt(entriesOffset + 8 * i + 4);
+			if (offset < 0 || length < 0 || (long) offset + length > stringsSize) {
+				throw new IOException("Invalid properties snapshot entry: " + (i / 2));
+			}
+		}
+	}
+
+	/**
+	 * Mapea y verifica un snapshot.
+	 * @param file Archivo
+	 * @return Snapshot mapeado
+	 * @throws IOException Si no puede leerse o no es válido.
+	 */
+	public static PropertiesSnapshotFile open(Path file) throws IOException {
+		return open(file, true);
+	}
+
+	/**
+	 * @param file Archivo
+	 * @param verify {@code false} para omitir el CRC-32; los límites se validan siempre.
+	 * @return Snapshot mapeado
+	 * @throws IOException Si no puede leerse o no es válido.
+	 */
+	public static PropertiesSnapshotFile open(Path file, boolean verify) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Invalid properties snapshot size");
+			}
+			return new PropertiesSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), verify);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * @param buffer Contenido del snapshot, desde la posición 0.
+	 * @param verify {@code false} para omitir el CRC-32; los límites se validan siempre.
+	 * @return Snapshot
+	 * @throws IOException Si no es válido.
+	 */
+	public static PropertiesSnapshotFile wrap(ByteBuffer buffer, boolean verify) throws IOException {
+		return new PropertiesSnapshotFile(buffer.duplicate(), verify);
+	}
+
+	/**
+	 * Escribe un snapshot.
+	 * @param properties Propiedades
+	 * @param out Destino
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public static void writeTo(PropertiesSnapshot properties, OutputStream out) throws IOException {
+		final int count = properties.size();
+		final byte[][] strings = new byte[count * 2][];
+		long stringsSize = 0;
+		for (int i = 0; i < count; i++) {
+			strings[2 * i] = properties.keyAt(i).getBytes(StandardCharsets.UTF_8);
+			strings[2 * i + 1] = properties.valueAt(i).getBytes(StandardCharsets.UTF_8);
+			stringsSize += strings[2 * i].length + strings[2 * i + 1].length;
+		}
+		final int[] table = properties.table();
+		final long size = HEADER_SIZE + 4L * table.length + (4L + ENTRY_SIZE) * count + stringsSize;
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Properties too large for a snapshot: " + size);
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+		buffer.putInt(count).putInt(table.length).putInt((int) stringsSize).putInt(0);
+		buffer.asIntBuffer().put(table);
+		buffer.position(buffer.position() + 4 * table.length);
+		for (int i = 0; i < count; i++) {
+			buffer.putInt(properties.keyAt(i).hashCode());
+		}
+		int offset = 0;
+		for (int i = 0; i < count; i++) {
+			buffer.putInt(offset).putInt(strings[2 * i].length);
+			offset += strings[2 * i].length;
+			buffer.putInt(offset).putInt(strings[2 * i + 1].length);
+			offset += strings[2 * i + 1].length;
+		}
+		for (byte[] s : strings) {
+			buffer.put(s);
+		}
+		buffer.putInt(CRC_OFFSET, checksum(buffer));
+		out.write(buffer.array(), 0, buffer.limit());
+		out.flush();
+	}
+
+	/**
+	 * Reemplaza un archivo de snapshot de forma atómica.
+	 * @param properties Propiedades
+	 * @param file Archivo
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public static void save(PropertiesSnapshot properties, Path file) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		OutputStream out = Files.newOutputStream(tmp);
+		try {
+			writeTo(properties, out);
+		} finally {
+			out.close();
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static int checksum(ByteBuffer buffer) {
+		ByteBuffer body = buffer.duplicate();
+		body.limit(buffer.limit()).position(HEADER_SIZE);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * @return Número de propiedades.
+	 */
+	public int size() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @param key Clave
+	 * @return Posición de la clave en orden de declaración o {@code -1}.
+	 */
+	public int indexOf(String key) {
+		if (key == null) {
+			throw new NullPointerException("key");
+		}
+		final int hash = key.hashCode();
+		final int mask = tableSize - 1;
+		int slot = PropertiesSnapshot.slot(hash, tableSize);
+		for (int probes = 0, e; probes < tableSize && (e = buffer.getInt(HEADER_SIZE + 4 * slot)) != 0; probes++, slot = (slot + 1) & mask) {
+			final int i = e - 1;
+			if (buffer.getInt(hashesOffset + 4 * i) == hash && keyAt(i).equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean containsKey(String key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * @param key Clave
+	 * @return Valor o {@code null} si no existe la clave.
+	 */
+	public String get(String key) {
+		final int i = indexOf(key);
+		return (i < 0) ? null : valueAt(i);
+	}
+
+	/**
+	 * @param key Clave
+	 * @param defaultValue Valor por defecto
+	 * @return Valor o {@code defaultValue} si no existe la clave.
+	 */
+	public String get(String key, String defaultValue) {
+		final int i = indexOf(key);
+		return (i < 0) ? defaultValue : valueAt(i);
+	}
+
+	/**
+	 * @param index Posición en orden de declaración
+	 * @return Clave
+	 */
+	public String keyAt(int index) {
+		String key = keys[index];
+		if (key == null) {
+			keys[index] = key = decode(entriesOffset + ENTRY_SIZE * index);
+		}
+		return key;
+	}
+
+	/**
+	 * @param index Posición en orden de declaración
+	 * @return Valor
+	 */
+	public String valueAt(int index) {
+		String value = values[index];
+		if (value == null) {
+			values[index] = value = decode(entriesOffset + ENTRY_SIZE * index + 8);
+		}
+		return value;
+	}
+
+	private String decode(int entry) {
+		final int offset = buffer.getInt(entry);
+		final int length = buffer.getInt(entry + 4);
+		if (buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + stringsOffset + offset, length, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(stringsOffset + offset);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodifica todas las propiedades, reutilizando el índice guardado.
+	 * @return Snapshot en memoria
+	 */
+	public PropertiesSnapshot toSnapshot() {
+		if (count == 0) {
+			return PropertiesSnapshot.EMPTY;
+		}
+		String[] k = new String[count];
+		String[] v = new String[count];
+		for (int i = 0; i < count; i++) {
+			k[i] = keyAt(i);
+			v[i] = valueAt(i);
+		}
+		int[] table = new int[tableSize];
+		ByteBuffer view = buffer.duplicate();
+		view.position(HEADER_SIZE);
+		view.asIntBuffer().get(table);
+		return PropertiesSnapshot.of(k, v, table);
+	}
+}
@@ -0,0 +1,233 @@
+package net.apercova.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Escritor de propiedades en orden de declaración.
+ * <p>
+ * Escribe claves y valores directamente en un {@link BufferedWriter}, sin
+ * concatenar cadenas. Sin escape, produce el mismo formato que
+ * {@link OrderedProperties#store(Writer, String)}; con escape, el de
+ * {@link java.util.Properties#store(Writer, String)}, resolviendo los escapes
+ * sobre un arreglo reutilizable solo en las cadenas que lo requieren.
+ * </p>
+ * <pre>
+ * Uso:
+ * {@code
+ *  try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+ *      PropertiesWriter.write(writer, config.snapshot(), "generated", false);
+ *  }
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ */
+public final class PropertiesWriter {
+
+	private final BufferedWriter writer;
+	private final boolean escape;
+	private final boolean escapeUnicode;
+	private char[] buffer = new char[256];
+
+	private PropertiesWriter(BufferedWriter writer, boolean escape, boolean escapeUnicode) {
+		this.writer = writer;
+		this.escape = escape;
+		this.escapeUnicode = escapeUnicode;
+	}
+
+	/**
+	 * @param writer Destino
+	 * @param properties Propiedades
+	 * @param comments Comentarios iniciales o {@code null}
+	 * @param escape {@code true} para escapar caracteres especiales.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public static void write(Writer writer, PropertiesSnapshot properties, String comments, boolean escape) throws IOException {
+		BufferedWriter bw = (writer instanceof BufferedWriter) ? (BufferedWriter) writer : new BufferedWriter(writer);
+		new PropertiesWriter(bw, escape, false).write(properties, comments);
+	}
+
+	/**
+	 * Escribe en ISO 8859-1; con escape, los caracteres fuera de ese rango se
+	 * escriben como {@code \}{@code uxxxx}.
+	 * @param out Destino
+	 * @param properties Propiedades
+	 * @param comments Comentarios iniciales o {@code null}
+	 * @param escape {@code true} para escapar caracteres especiales.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public static void write(OutputStream out, PropertiesSnapshot properties, String comments, boolean escape) throws IOException {
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1));
+		new PropertiesWriter(bw, escape, escape).write(properties, comments);
+	}
+
+	private void write(PropertiesSnapshot properties, String comments) throws IOException {
+		if (comments != null) {
+			writeComments(writer, comments);
+		}
+		writer.write('#');
+		writer.write(new Date().toString());
+		writer.newLine();
+		for (int i = 0; i < properties.size(); i++) {
+			writeEntry(properties.keyAt(i), properties.valueAt(i));
+		}
+		writer.flush();
+	}
+
+	private void writeEntry(String key, String value) throws IOException {
+		if (escape) {
+			writeEscaped(key, true);
+			writer.write('=');
+			writeEscaped(value, false);
+		} else {
+			writer.write(key);
+			writer.write('=');
+			writer.write(value);
+		}
+		writer.newLine();
+	}
+
+	/**
+	 * Implementación de {@code saveConvert} en {@link java.util.Properties}.
+	 */
+	private void writeEscaped(String s, boolean escapeSpace) throws IOException {
+		final int len = s.length();
+		int i = 0;
+		while (i < len && !needsEscape(s.charAt(i), escapeSpace || i == 0)) {
+			i++;
+		}
+		if (i == len) {
+			writer.write(s);
+			return;
+		}
+		if (buffer.length < len * 6) {
+			buffer = new char[len * 6];
+		}
+		s.getChars(0, i, buffer, 0);
+		int n = i;
+		for (; i < len; i++) {
+			final char c = s.charAt(i);
+			if (!needsEscape(c, escapeSpace || i == 0)) {
+				buffer[n++] = c;
+				continue;
+			}
+			buffer[n++] = '\\';
+			switch (c) {
+				case ' ':
+				case '=':
+				case ':':
+				case '#':
+				case '!':
+				case '\\':
+					buffer[n++] = c;
+					break;
+				case '\t':
+					buffer[n++] = 't';
+					break;
+				case '\n':
+					buffer[n++] = 'n';
+					break;
+				case '\r':
+					buffer[n++] = 'r';
+					break;
+				case '\f':
+					buffer[n++] = 'f';
+					break;
+				default:
+					buffer[n++] = 'u';
+					buffer[n++] = toHex((c >> 12) & 0xF);
+					buffer[n++] = toHex((c >> 8) & 0xF);
+					buffer[n++] = toHex((c >> 4) & 0xF);
+					buffer[n++] = toHex(c & 0xF);
+			}
+		}
+		writer.write(buffer, 0, n);
+	}
+
+	private boolean needsEscape(char c, boolean escapeSpace) {
+		if (c > 0x3D && c < 0x7F) {
+			return c == '\\';
+		}
+		switch (c) {
+			case ' ':
+				return escapeSpace;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+			case '\t':
+			case '\n':
+			case '\r':
+			case '\f':
+				return true;
+			default:
+				return escapeUnicode && (c < 0x20 || c > 0x7E);
+		}
+	}
+
+	/**
+	 * Implementación privada en {@link java.util.Properties}.
+	 */
+	static void writeComments(BufferedWriter bw, String comments)
+		throws IOException {
+		bw.write("#");
+		int len = comments.length();
+		int current = 0;
+		int last = 0;
+		char[] uu = new char[6];
+		uu[0] = '\\';
+		uu[1] = 'u';
+		while (current < len) {
+			char c = comments.charAt(current);
+			if (c > '\u00ff' || c == '\n' || c == '\r') {
+				if (last != current)
+					bw.write(comments.substring(last, current));
+				if (c > '\u00ff') {
+					uu[2] = toHex((c >> 12) & 0xf);
+					uu[3] = toHex((c >>  8) & 0xf);
+					uu[4] = toHex((c >>  4) & 0xf);
+					uu[5] = toHex( c        & 0xf);
+					bw.write(new String(uu));
+				} else {
+					bw.newLine();
+					if (c == '\r' &&
+						current != len - 1 &&
+						comments.charAt(current + 1) == '\n') {
+						current++;
+					}
+					if (current == len - 1 ||
+						(comments.charAt(current + 1) != '#' &&
+						comments.charAt(current + 1) != '!'))
+						bw.write("#");
+				}
+				last = current + 1;
+			}
+			current++;
+		}
+		if (last != current)
+			bw.write(comments.substring(last, current));
+		bw.newLine();
+	}
+
+	/**
+	 * Implementación privada en {@link java.util.Properties}.
+	 * Convert a nibble to a hex character
+	 * @param   nibble  the nibble to convert.
+	 */
+	private static char toHex(int nibble) {
+		return hexDigit[(nibble & 0xF)];
+	}
+
+	/**
+	 * Implementación privada en {@link java.util.Properties}.
+	 * A table of hex digits */
+	private static final char[] hexDigit = {
+		'0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F'
+	};
+}
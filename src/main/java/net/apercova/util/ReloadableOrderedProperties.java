@@ -0,0 +1,377 @@
+package net.apercova.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConcurrentOrderedProperties} que se recarga al cambiar sus archivos.
+ * <p>
+ * Las propiedades se leen de uno o más archivos; los posteriores sobrescriben
+ * los valores de los anteriores y el orden es el de primera declaración.
+ * Cada recarga revisa fecha, tamaño e identidad de cada archivo y solo vuelve a
+ * leer los que cambiaron, conservando el snapshot ya leído de los demás.
+ * El resultado se publica con {@link #replace(PropertiesSnapshot)} en una sola
+ * operación y los {@link PropertiesChangeListener} reciben únicamente la
+ * diferencia por clave; una recarga sin cambios no los notifica.
+ * Con {@link #start()} un hilo daemon espera eventos de {@link WatchService}
+ * en los directorios de los archivos, o revisa cada {@code pollMillis} si no
+ * hay uno disponible. Un archivo inexistente al iniciar se considera vacío y
+ * uno ilegible conserva sus propiedades anteriores. Un archivo que desaparece
+ * también las conserva, notificando {@link PropertiesChangeListener#reloadFailed(Path, Exception)},
+ * hasta que reaparece o permanece inexistente por 5 segundos.
+ * Los archivos se leen completos a memoria con {@link PropertiesParser#read(Path, Charset)},
+ * sin mapearlos, de modo que reescribirlos durante la lectura no afecta al
+ * hilo de recarga, que además sobrevive a cualquier error y lo notifica.
+ * Las asignaciones manuales se pierden en la siguiente recarga con cambios.
+ * </p>
+ * <pre>
+ * Uso:
+ * {@code
+ *  ReloadableOrderedProperties config = new ReloadableOrderedProperties(defaults, overrides);
+ *  config.addListener(diff -> cache.invalidate(diff.changed()));
+ *  config.start();
+ *  String url = config.getProperty("db.url");
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ * @version 1.1 2026.10 Conservando propiedades de archivos eliminados y recreados
+ * @version 1.2 2026.10 Leyendo archivos sin mapeo en memoria y conservando el hilo de recarga ante errores
+ */
+public class ReloadableOrderedProperties extends ConcurrentOrderedProperties implements Closeable {
+
+	public static final long DEFAULT_POLL_MILLIS = 1000L;
+
+	/**
+	 * Espera tras un evento para agrupar escrituras sucesivas de un archivo.
+	 */
+	private static final long QUIET_MILLIS = 50L;
+	/**
+	 * Antigüedad bajo la cual una fecha de modificación no distingue escrituras
+	 * sucesivas (resolución del sistema de archivos); esos archivos se vuelven
+	 * a leer en la siguiente revisión.
+	 */
+	private static final long RACY_MILLIS = 2000L;
+	/**
+	 * Tiempo que un archivo leído debe permanecer inexistente para publicar
+	 * la eliminación de sus propiedades; cubre editores y herramientas de
+	 * despliegue que lo eliminan y vuelven a crear.
+	 */
+	private static final long MISSING_MILLIS = 5000L;
+
+	private final Source[] sources;
+	private final Charset charset;
+	private final long pollMillis;
+	private final List<PropertiesChangeListener> listeners = new CopyOnWriteArrayList<PropertiesChangeListener>();
+	/**
+	 * Serializa recargas.
+	 */
+	private final Object reloadLock = new Object();
+	private WatchService watcher;
+	private Thread thread;
+	private volatile boolean closed;
+
+	/**
+	 * Lee archivos en ISO 8859-1, como {@link java.util.Properties#load(java.io.InputStream)}.
+	 * @param files Archivos, en orden de prioridad creciente.
+	 * @throws IOException Si un archivo no puede leerse.
+	 */
+	public ReloadableOrderedProperties(Path... files) throws IOException {
+		this(StandardCharsets.ISO_8859_1, DEFAULT_POLL_MILLIS, files);
+	}
+
+	/**
+	 * @param charset Charset de los archivos
+	 * @param pollMillis Intervalo máximo entre revisiones.
+	 * @param files Archivos, en orden de prioridad creciente.
+	 * @throws IOException Si un archivo no puede leerse.
+	 */
+	public ReloadableOrderedProperties(Charset charset, long pollMillis, Path... files) throws IOException {
+		if (charset == null) {
+			throw new NullPointerException("charset");
+		}
+		if (pollMillis <= 0) {
+			throw new IllegalArgumentException("pollMillis");
+		}
+		if (files.length == 0) {
+			throw new IllegalArgumentException("files");
+		}
+		this.charset = charset;
+		this.pollMillis = pollMillis;
+		this.sources = new Source[files.length];
+		for (int i = 0; i < files.length; i++) {
+			if (files[i] == null) {
+				throw new NullPointerException("files[" + i + "]");
+			}
+			sources[i] = new Source(files[i].toAbsolutePath());
+		}
+		for (Source source : sources) {
+			source.check(charset);
+		}
+		replace(merge());
+	}
+
+	public void addListener(PropertiesChangeListener listener) {
+		if (listener == null) {
+			throw new NullPointerException("listener");
+		}
+		listeners.add(listener);
+	}
+
+	public void removeListener(PropertiesChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Vuelve a leer los archivos que cambiaron y publica el resultado.
+	 * Los archivos que no pueden leerse se notifican con
+	 * {@link PropertiesChangeListener#reloadFailed(Path, Exception)} y conservan
+	 * sus propiedades anteriores.
+	 * @return Diferencia publicada; vacía si no hubo cambios.
+	 */
+	public PropertiesDiff reload() {
+		synchronized (reloadLock) {
+			boolean changed = false;
+			for (Source source : sources) {
+				try {
+					changed |= source.check(charset);
+				} catch (IOException e) {
+					failed(source.file, e);
+				} catch (RuntimeException e) {
+					//malformed content
+					failed(source.file, e);
+				} catch (Error e) {
+					failed(source.file, new ExecutionException(e));
+				}
+			}
+			final PropertiesSnapshot current = snapshot();
+			if (!changed) {
+				return PropertiesDiff.between(current, current);
+			}
+			final PropertiesSnapshot next = merge();
+			final PropertiesDiff diff = PropertiesDiff.between(replace(next), next);
+			if (!diff.isEmpty()) {
+				for (PropertiesChangeListener listener : listeners) {
+					try {
+						listener.propertiesChanged(diff);
+					} catch (RuntimeException e) {
+						//a failing listener must not stop the others
+					}
+				}
+			}
+			return diff;
+		}
+	}
+
+	private void failed(Path file, Exception error) {
+		for (PropertiesChangeListener listener : listeners) {
+			try {
+				listener.reloadFailed(file, error);
+			} catch (RuntimeException e) {
+				//ignored
+			}
+		}
+	}
+
+	private PropertiesSnapshot merge() {
+		PropertiesSnapshot merged = sources[0].properties;
+		for (int i = 1; i < sources.length; i++) {
+			merged = merged.withAll(sources[i].properties);
+		}
+		return merged;
+	}
+
+	/**
+	 * Inicia la recarga automática en un hilo daemon. Sin efecto si ya inició.
+	 * @throws IOException Si no puede registrarse el {@link WatchService}.
+	 */
+	public synchronized void start() throws IOException {
+		if (closed) {
+			throw new IOException("Closed");
+		}
+		if (thread != null) {
+			return;
+		}
+		Set<Path> dirs = new LinkedHashSet<Path>();
+		for (Source source : sources) {
+			dirs.add(source.file.getParent());
+		}
+		try {
+			watcher = sources[0].file.getFileSystem().newWatchService();
+			for (Path dir : dirs) {
+				dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			}
+		} catch (UnsupportedOperationException e) {
+			watcher = null;
+		}
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "ReloadableOrderedProperties");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void watch() {
+		try {
+			while (!closed) {
+				if (watcher == null) {
+					Thread.sleep(pollMillis);
+				} else {
+					WatchKey key = watcher.poll(pollMillis, TimeUnit.MILLISECONDS);
+					if (key != null && relevant(key)) {
+						//let the writer finish, then drain pending events
+						Thread.sleep(QUIET_MILLIS);
+						while ((key = watcher.poll()) != null) {
+							relevant(key);
+						}
+					}
+				}
+				if (!closed) {
+					try {
+						reload();
+					} catch (Throwable e) {
+						//keep watching, the previous properties stay published
+						failed(null, (e instanceof Exception) ? (Exception) e : new ExecutionException(e));
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			//closed
+		} catch (ClosedWatchServiceException e) {
+			//closed
+		}
+	}
+
+	/**
+	 * Consume los eventos de un directorio.
+	 * @return {@code true} si alguno corresponde a un archivo de propiedades.
+	 */
+	private boolean relevant(WatchKey key) {
+		boolean relevant = false;
+		final Path dir = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				relevant = true;
+				continue;
+			}
+			final Path file = dir.resolve((Path) event.context());
+			for (Source source : sources) {
+				relevant |= source.file.equals(file);
+			}
+		}
+		key.reset();
+		return relevant;
+	}
+
+	/**
+	 * Detiene la recarga automática.
+	 */
+	@Override
+	public void close() throws IOException {
+		Thread running;
+		synchronized (this) {
+			closed = true;
+			running = thread;
+			if (watcher != null) {
+				watcher.close();
+			} else if (running != null) {
+				//wake up from polling
+				running.interrupt();
+			}
+		}
+		if (running != null && running != Thread.currentThread()) {
+			try {
+				running.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Archivo de propiedades y su último estado leído.
+	 */
+	static final class Source {
+		final Path file;
+		PropertiesSnapshot properties = PropertiesSnapshot.EMPTY;
+		boolean exists;
+		long lastModified;
+		long size;
+		Object fileKey;
+		boolean racy;
+		/**
+		 * Momento en que se encontró inexistente, {@code 0} si existe.
+		 */
+		long missingSince;
+
+		Source(Path file) {
+			this.file = file;
+		}
+
+		/**
+		 * Vuelve a leer el archivo si cambió.
+		 * @return {@code true} si cambiaron sus propiedades.
+		 */
+		boolean check(Charset charset) throws IOException {
+			final long now = System.currentTimeMillis();
+			final BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			} catch (NoSuchFileException e) {
+				if (!exists) {
+					return false;
+				}
+				if (missingSince == 0L) {
+					missingSince = now;
+				}
+				if (now - missingSince < MISSING_MILLIS) {
+					//possibly being replaced, keep the previous properties
+					throw e;
+				}
+				exists = false;
+				racy = false;
+				missingSince = 0L;
+				properties = PropertiesSnapshot.EMPTY;
+				return true;
+			}
+			missingSince = 0L;
+			final long modified = attributes.lastModifiedTime().toMillis();
+			final Object key = attributes.fileKey();
+			if (exists && !racy && modified == lastModified && attributes.size() == size
+					&& (key == null ? fileKey == null : key.equals(fileKey))) {
+				return false;
+			}
+			final PropertiesSnapshot loaded = PropertiesParser.read(file, charset);
+			exists = true;
+			lastModified = modified;
+			size = attributes.size();
+			fileKey = key;
+			racy = modified >= now - RACY_MILLIS;
+			if (loaded.equals(properties)) {
+				return false;
+			}
+			properties = loaded;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package net.apercova.util.converter;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base {@link BinaryCodec} for group-oriented codecs, where every
+ * {@code bytesPerGroup} bytes are encoded into {@code charsPerGroup} chars.
+ * Implementations provide the array based operations; {@code String} and
+ * {@link ByteBuffer} operations are built on them.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public abstract class AbstractBinaryCodec implements BinaryCodec {
+
+	/**
+	 * Groups processed per block when a {@link ByteBuffer} has no accessible array.
+	 */
+	private static final int BLOCK_GROUPS = 1024;
+
+	private final int bytesPerGroup;
+	private final int charsPerGroup;
+
+	protected AbstractBinaryCodec(int bytesPerGroup, int charsPerGroup) {
+		this.bytesPerGroup = bytesPerGroup;
+		this.charsPerGroup = charsPerGroup;
+	}
+
+	@Override
+	public int encodedLength(int length) {
+		if(length < 0) {
+			throw new IllegalArgumentException("length");
+		}
+		final long n = ((long) length + bytesPerGroup - 1) / bytesPerGroup * charsPerGroup;
+		if(n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("length");
+		}
+		return (int) n;
+	}
+
+	@Override
+	public String encode(byte[] bytes) {
+		if(bytes == null) {
+			throw new NullPointerException("bytes");
+		}
+		final byte[] out = new byte[encodedLength(bytes.length)];
+		encode(bytes, 0, bytes.length, out, 0);
+		return new String(out, StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public byte[] decode(CharSequence text) {
+		if(text == null) {
+			throw new NullPointerException("text");
+		}
+		final byte[] buf;
+		if(text instanceof String) {
+			buf = ((String) text).getBytes(StandardCharsets.ISO_8859_1);
+		} else {
+			buf = new byte[text.length()];
+			for(int i = 0; i < buf.length; i++) {
+				final char c = text.charAt(i);
+				buf[i] = (c < 256) ? (byte) c : (byte) '?';
+			}
+		}
+		final int n = decode(buf, 0, buf.length, buf, 0);
+		return (n == buf.length) ? buf : Arrays.copyOf(buf, n);
+	}
+
+	@Override
+	public int encode(ByteBuffer src, ByteBuffer dst) {
+		if(src == null) {
+			throw new NullPointerException("src");
+		}
+		if(dst == null) {
+			throw new NullPointerException("dst");
+		}
+		final int length = src.remaining();
+		final int required = encodedLength(length);
+		if(dst.remaining() < required) {
+			throw new BufferOverflowException();
+		}
+		if(src.hasArray() && dst.hasArray()) {
+			encode(src.array(), src.arrayOffset() + src.position(), length, dst.array(), dst.arrayOffset() + dst.position());
+			src.position(src.limit());
+			dst.position(dst.position() + required);
+			return required;
+		}
+		final byte[] in = new byte[Math.min(length, bytesPerGroup * BLOCK_GROUPS)];
+		final byte[] out = new byte[encodedLength(in.length)];
+		while(src.hasRemaining()) {
+			final int n = Math.min(src.remaining(), in.length);
+			src.get(in, 0, n);
+			dst.put(out, 0, encode(in, 0, n, out, 0));
+		}
+		return required;
+	}
+
+	@Override
+	public int decode(ByteBuffer src, ByteBuffer dst) {
+		if(src == null) {
+			throw new NullPointerException("src");
+		}
+		if(dst == null) {
+			throw new NullPointerException("dst");
+		}
+		final int length = src.remaining();
+		if(src.hasArray() && dst.hasArray()) {
+			final int required = decodedLength(src.array(), src.arrayOffset() + src.position(), length);
+			if(dst.remaining() < required) {
+				throw new BufferOverflowException();
+			}
+			decode(src.array(), src.arrayOffset() + src.position(), length, dst.array(), dst.arrayOffset() + dst.position());
+			src.position(src.limit());
+			dst.position(dst.position() + required);
+			return required;
+		}
+		// Padding can only appear in the last group, so the decoded length
+		// follows from the whole groups before it plus the last group alone
+		final int last = (length % charsPerGroup == 0) ? Math.min(length, charsPerGroup) : length % charsPerGroup;
+		final byte[] tail = new byte[last];
+		for(int i = 0; i < last; i++) {
+			tail[i] = src.get(src.limit() - last + i);
+		}
+		final int required = (length - last) / charsPerGroup * bytesPerGroup + decodedLength(tail, 0, last);
+		if(dst.remaining() < required) {
+			throw new BufferOverflowException();
+		}
+		final byte[] in = new byte[Math.min(length, charsPerGroup * BLOCK_GROUPS)];
+		while(src.hasRemaining()) {
+			final int n = Math.min(src.remaining(), in.length);
+			src.get(in, 0, n);
+			dst.put(in, 0, decode(in, 0, n, in, 0));
+		}
+		return required;
+	}
+
+	protected static void checkRange(byte[] array, int offset, int length, String name) {
+		if(array == null) {
+			throw new NullPointerException(name);
+		}
+		if(offset < 0 || length < 0 || offset > array.length - length) {
+			throw new IndexOutOfBoundsException(name + " offset: " + offset + ", length: " + length + ", size: " + array.length);
+		}
+	}
+
+	/**
+	 * Builds a decoding table for an alphabet.
+	 * @param alphabet ASCII alphabet, index is the digit value
+	 * @param ignoreCase whether lowercase letters decode as their uppercase
+	 * @return Digit value of each byte value, {@code -1} if it is not in the alphabet
+	 */
+	protected static byte[] decodingTable(String alphabet, boolean ignoreCase) {
+		final byte[] table = new byte[256];
+		Arrays.fill(table, (byte) -1);
+		for(int i = 0; i < alphabet.length(); i++) {
+			final char c = alphabet.charAt(i);
+			table[c] = (byte) i;
+			if(ignoreCase) {
+				table[Character.toLowerCase(c)] = (byte) i;
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Locates the first char of a range missing from a decoding table.
+	 * @param name codec name for the message
+	 * @param table decoding table from {@link #decodingTable(String, boolean)}
+	 * @param src ASCII text
+	 * @param from range start
+	 * @param to range end
+	 * @param offset text offset, positions are reported relative to it
+	 * @return Exception to throw
+	 */
+	protected static IllegalArgumentException illegalCharacter(String name, byte[] table, byte[] src, int from, int to, int offset) {
+		int i = from;
+		while(i < to - 1 && table[src[i] & 0xFF] >= 0) {
+			i++;
+		}
+		return new IllegalArgumentException("Illegal " + name + " character at " + (i - offset) + ": " + (char) (src[i] & 0xFF));
+	}
+}
@@ -0,0 +1,126 @@
+package net.apercova.util.converter;
+
+/**
+ * RFC 4648 Base32 {@link BinaryCodec}.
+ * <p>
+ * Encoding always pads with {@code '='}; decoding accepts padded and unpadded
+ * text in either case. Each 5-byte group is packed into a {@code long} and
+ * emitted as 8 chars per iteration.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public final class Base32Codec extends AbstractBinaryCodec {
+
+	private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
+	private static final byte PAD = '=';
+
+	/**
+	 * Decoded bytes for each count of significant chars in the last group, {@code -1} if invalid.
+	 */
+	private static final int[] REMAINDER_BYTES = {0, -1, 1, -1, 2, 3, -1, 4};
+
+	public static final Base32Codec INSTANCE = new Base32Codec();
+
+	private final byte[] alphabet = ALPHABET.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+	private final byte[] values = decodingTable(ALPHABET, true);
+
+	private Base32Codec() {
+		super(5, 8);
+	}
+
+	@Override
+	public int decodedLength(byte[] src, int offset, int length) {
+		checkRange(src, offset, length, "src");
+		int pad = 0;
+		while(pad < 6 && pad < length && src[offset + length - 1 - pad] == PAD) {
+			pad++;
+		}
+		if(pad > 0 && length % 8 != 0) {
+			throw new IllegalArgumentException("Illegal base32 padding");
+		}
+		final int n = length - pad;
+		final int rem = REMAINDER_BYTES[n % 8];
+		if(rem < 0) {
+			throw new IllegalArgumentException("Illegal base32 length: " + length);
+		}
+		return n / 8 * 5 + rem;
+	}
+
+	@Override
+	public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		checkRange(src, offset, length, "src");
+		final int required = encodedLength(length);
+		checkRange(dst, dstOffset, required, "dst");
+		final byte[] a = alphabet;
+		final int end = offset + length / 5 * 5;
+		int i = offset;
+		int j = dstOffset;
+		for(; i < end; i += 5) {
+			final long v = (src[i] & 0xFFL) << 32 | (src[i + 1] & 0xFFL) << 24 | (src[i + 2] & 0xFFL) << 16
+					| (src[i + 3] & 0xFFL) << 8 | (src[i + 4] & 0xFFL);
+			for(int s = 35; s >= 0; s -= 5) {
+				dst[j++] = a[(int) (v >>> s) & 0x1F];
+			}
+		}
+		final int rem = length - (end - offset);
+		if(rem > 0) {
+			long v = 0;
+			for(int k = 0; k < 5; k++) {
+				v = v << 8 | ((k < rem) ? (src[i + k] & 0xFFL) : 0);
+			}
+			final int chars = (rem * 8 + 4) / 5;
+			for(int k = 0, s = 35; k < 8; k++, s -= 5) {
+				dst[j++] = (k < chars) ? a[(int) (v >>> s) & 0x1F] : PAD;
+			}
+		}
+		return required;
+	}
+
+	@Override
+	public int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		final int n = decodedLength(src, offset, length);
+		checkRange(dst, dstOffset, n, "dst");
+		final byte[] t = values;
+		int end = offset + length;
+		while(end > offset && src[end - 1] == PAD && (offset + length - end) < 6) {
+			end--;
+		}
+		final int full = offset + (end - offset) / 8 * 8;
+		int i = offset;
+		int j = dstOffset;
+		for(; i < full; i += 8) {
+			long v = 0;
+			int check = 0;
+			for(int k = 0; k < 8; k++) {
+				final int x = t[src[i + k] & 0xFF];
+				check |= x;
+				v = v << 5 | (x & 0x1F);
+			}
+			if(check < 0) {
+				throw illegalCharacter("base32", t, src, i, i + 8, offset);
+			}
+			dst[j++] = (byte) (v >>> 32);
+			dst[j++] = (byte) (v >>> 24);
+			dst[j++] = (byte) (v >>> 16);
+			dst[j++] = (byte) (v >>> 8);
+			dst[j++] = (byte) v;
+		}
+		if(i < end) {
+			long v = 0;
+			for(int k = i; k < end; k++) {
+				final int x = t[src[k] & 0xFF];
+				if(x < 0) {
+					throw illegalCharacter("base32", t, src, k, end, offset);
+				}
+				v = v << 5 | x;
+			}
+			v <<= 5 * (8 - (end - i));
+			for(int k = 0, s = 32, bytes = REMAINDER_BYTES[end - i]; k < bytes; k++, s -= 8) {
+				dst[j++] = (byte) (v >>> s);
+			}
+		}
+		return n;
+	}
+}
@@ -0,0 +1,138 @@
+package net.apercova.util.converter;
+
+import java.util.Base64;
+
+/**
+ * RFC 4648 Base64 {@link BinaryCodec}, standard and URL-safe alphabets.
+ * <p>
+ * Encoding always pads with {@code '='}; decoding accepts padded and unpadded
+ * text. Whole-array operations delegate to {@link java.util.Base64}, which
+ * recent JVMs compile to vectorized intrinsics; array ranges use a scalar
+ * table-driven path that processes 3 bytes / 4 chars per iteration.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public final class Base64Codec extends AbstractBinaryCodec {
+
+	private static final String BASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+	private static final byte PAD = '=';
+
+	/**
+	 * Standard alphabet, {@code '+'} and {@code '/'}.
+	 */
+	public static final Base64Codec STANDARD = new Base64Codec(BASE + "+/", Base64.getEncoder(), Base64.getDecoder());
+
+	/**
+	 * URL and filename safe alphabet, {@code '-'} and {@code '_'}.
+	 */
+	public static final Base64Codec URL_SAFE = new Base64Codec(BASE + "-_", Base64.getUrlEncoder(), Base64.getUrlDecoder());
+
+	private final byte[] alphabet;
+	private final byte[] values;
+	private final Base64.Encoder encoder;
+	private final Base64.Decoder decoder;
+
+	private Base64Codec(String alphabet, Base64.Encoder encoder, Base64.Decoder decoder) {
+		super(3, 4);
+		this.alphabet = alphabet.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+		this.values = decodingTable(alphabet, false);
+		this.encoder = encoder;
+		this.decoder = decoder;
+	}
+
+	@Override
+	public int decodedLength(byte[] src, int offset, int length) {
+		checkRange(src, offset, length, "src");
+		int pad = 0;
+		while(pad < 2 && pad < length && src[offset + length - 1 - pad] == PAD) {
+			pad++;
+		}
+		if(pad > 0 && length % 4 != 0) {
+			throw new IllegalArgumentException("Illegal base64 padding");
+		}
+		final int n = length - pad;
+		final int rem = n % 4;
+		if(rem == 1) {
+			throw new IllegalArgumentException("Illegal base64 length: " + length);
+		}
+		return n / 4 * 3 + ((rem == 0) ? 0 : rem - 1);
+	}
+
+	@Override
+	public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		checkRange(src, offset, length, "src");
+		final int required = encodedLength(length);
+		checkRange(dst, dstOffset, required, "dst");
+		if(offset == 0 && length == src.length && dstOffset == 0 && src != dst) {
+			return encoder.encode(src, dst);
+		}
+		final byte[] a = alphabet;
+		final int end = offset + length / 3 * 3;
+		int i = offset;
+		int j = dstOffset;
+		for(; i < end; i += 3) {
+			final int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+			dst[j++] = a[v >>> 18];
+			dst[j++] = a[(v >>> 12) & 0x3F];
+			dst[j++] = a[(v >>> 6) & 0x3F];
+			dst[j++] = a[v & 0x3F];
+		}
+		final int rem = length - (end - offset);
+		if(rem > 0) {
+			final int v = (src[i] & 0xFF) << 16 | ((rem == 2) ? (src[i + 1] & 0xFF) << 8 : 0);
+			dst[j++] = a[v >>> 18];
+			dst[j++] = a[(v >>> 12) & 0x3F];
+			dst[j++] = (rem == 2) ? a[(v >>> 6) & 0x3F] : PAD;
+			dst[j++] = PAD;
+		}
+		return required;
+	}
+
+	@Override
+	public int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		final int n = decodedLength(src, offset, length);
+		checkRange(dst, dstOffset, n, "dst");
+		if(offset == 0 && length == src.length && dstOffset == 0 && src != dst) {
+			return decoder.decode(src, dst);
+		}
+		final byte[] t = values;
+		int end = offset + length;
+		while(end > offset && src[end - 1] == PAD && (offset + length - end) < 2) {
+			end--;
+		}
+		final int full = offset + (end - offset) / 4 * 4;
+		int i = offset;
+		int j = dstOffset;
+		for(; i < full; i += 4) {
+			final int a = t[src[i] & 0xFF];
+			final int b = t[src[i + 1] & 0xFF];
+			final int c = t[src[i + 2] & 0xFF];
+			final int d = t[src[i + 3] & 0xFF];
+			if((a | b | c | d) < 0) {
+				throw illegalCharacter("base64", t, src, i, i + 4, offset);
+			}
+			final int v = a << 18 | b << 12 | c << 6 | d;
+			dst[j++] = (byte) (v >>> 16);
+			dst[j++] = (byte) (v >>> 8);
+			dst[j++] = (byte) v;
+		}
+		if(i < end) {
+			int v = 0;
+			for(int k = i; k < end; k++) {
+				final int x = t[src[k] & 0xFF];
+				if(x < 0) {
+					throw illegalCharacter("base64", t, src, k, end, offset);
+				}
+				v = v << 6 | x;
+			}
+			v <<= 6 * (4 - (end - i));
+			dst[j++] = (byte) (v >>> 16);
+			if(end - i == 3) {
+				dst[j++] = (byte) (v >>> 8);
+			}
+		}
+		return n;
+	}
+}
@@ -0,0 +1,85 @@
+package net.apercova.util.converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary to text codec. Text is handled as ASCII bytes so encoding and decoding
+ * can write directly into caller-supplied arrays and buffers.
+ * @see HexCodec
+ * @see Base64Codec
+ * @see Base32Codec
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public interface BinaryCodec {
+
+	/**
+	 * @param length number of bytes to encode
+	 * @return Number of ASCII chars produced by encoding {@code length} bytes
+	 */
+	int encodedLength(int length);
+
+	/**
+	 * @param src ASCII text
+	 * @param offset text offset
+	 * @param length text length
+	 * @return Number of bytes produced by decoding the text
+	 * @throws IllegalArgumentException If the text length or padding is invalid.
+	 */
+	int decodedLength(byte[] src, int offset, int length);
+
+	/**
+	 * Encodes a byte range as ASCII text.
+	 * @param src source bytes
+	 * @param offset source offset
+	 * @param length number of bytes to encode
+	 * @param dst target, needs {@link #encodedLength(int)} bytes from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of bytes written
+	 */
+	int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset);
+
+	/**
+	 * Decodes an ASCII text range. {@code dst} may be {@code src} itself with
+	 * {@code dstOffset <= offset}.
+	 * @param src ASCII text
+	 * @param offset text offset
+	 * @param length text length
+	 * @param dst target, needs {@link #decodedLength(byte[], int, int)} bytes from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of bytes written
+	 * @throws IllegalArgumentException If the text is not valid for this codec.
+	 */
+	int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset);
+
+	/**
+	 * Encodes the remaining bytes of {@code src} into {@code dst}, advancing both positions.
+	 * @param src source bytes
+	 * @param dst target, needs {@link #encodedLength(int)} bytes remaining
+	 * @return Number of bytes written
+	 */
+	int encode(ByteBuffer src, ByteBuffer dst);
+
+	/**
+	 * Decodes the remaining text of {@code src} into {@code dst}, advancing both positions.
+	 * @param src ASCII text
+	 * @param dst target, needs the decoded length remaining
+	 * @return Number of bytes written
+	 * @throws IllegalArgumentException If the text is not valid for this codec.
+	 */
+	int decode(ByteBuffer src, ByteBuffer dst);
+
+	/**
+	 * @param bytes source bytes
+	 * @return Encoded text
+	 */
+	String encode(byte[] bytes);
+
+	/**
+	 * @param text Encoded text
+	 * @return Decoded bytes
+	 * @throws IllegalArgumentException If the text is not valid for this codec.
+	 */
+	byte[] decode(CharSequence text);
+}
@@ -0,0 +1,41 @@
+package net.apercova.util.converter;
+
+/**
+ * Lowercase hex {@link BinaryCodec} backed by {@link HexEncodingDecoding}.
+ * Decoding is case-insensitive.
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public final class HexCodec extends AbstractBinaryCodec {
+
+	public static final HexCodec INSTANCE = new HexCodec();
+
+	private HexCodec() {
+		super(1, 2);
+	}
+
+	@Override
+	public int decodedLength(byte[] src, int offset, int length) {
+		checkRange(src, offset, length, "src");
+		if (length % 2 != 0) {
+			throw new IllegalArgumentException("hexBinary needs to be even-length: " + length);
+		}
+		return length / 2;
+	}
+
+	@Override
+	public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		return HexEncodingDecoding.encode(src, offset, length, dst, dstOffset);
+	}
+
+	@Override
+	public int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+		return HexEncodingDecoding.decode(src, offset, length, dst, dstOffset);
+	}
+
+	@Override
+	public String encode(byte[] bytes) {
+		return HexEncodingDecoding.encode(bytes);
+	}
+}
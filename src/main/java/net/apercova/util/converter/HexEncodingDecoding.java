@@ -1,16 +1,51 @@
 package net.apercova.util.converter;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Byte to hex String encoder/decoder
+ * <p>
+ * Encoding and decoding are table driven and write into exact-size outputs.
+ * Besides the {@code String} based methods, overloads encode into a
+ * caller-supplied {@code char[]}, ASCII {@code byte[]}, {@link ByteBuffer} or
+ * {@link Appendable}, and decode from a {@link CharSequence} or ASCII
+ * {@code byte[]} range, with no intermediate copies.
+ * Decoding is case-insensitive.
+ * </p>
  * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
  * @version 1.0 2017.12
- * 
+ * @version 1.1 2026.10 Adding table-driven encoding/decoding and caller-supplied targets
+ *
  */
 public final class HexEncodingDecoding {
 	private static final String HEX_CHARS = "0123456789abcdef";
-	
+
+	/**
+	 * High and low hex digit of each byte value.
+	 */
+	private static final char[] HIGH = new char[256];
+	private static final char[] LOW = new char[256];
+
+	/**
+	 * Nibble value of each ASCII character, {@code -1} if it is not a hex digit.
+	 */
+	private static final byte[] NIBBLES = new byte[128];
+
+	static {
+		for(int i = 0; i < 256; i++) {
+			HIGH[i] = HEX_CHARS.charAt(i >>> 4);
+			LOW[i] = HEX_CHARS.charAt(i & 0xF);
+		}
+		java.util.Arrays.fill(NIBBLES, (byte) -1);
+		for(int i = 0; i < 16; i++) {
+			NIBBLES[HEX_CHARS.charAt(i)] = (byte) i;
+			NIBBLES[Character.toUpperCase(HEX_CHARS.charAt(i))] = (byte) i;
+		}
+	}
+
 	private HexEncodingDecoding() {}
-	
+
 	/**
 	 * Custom for JDK1.0+ java versions
 	 * @param bytes source bytes
@@ -20,14 +55,106 @@ public final class HexEncodingDecoding {
 		if(bytes == null) {
 			throw new NullPointerException("bytes");
 		}
-		StringBuilder sb = new StringBuilder("");
-		for(byte b: bytes) {
-			sb.append(HEX_CHARS.charAt((b >> 4) & 0xF));
-			sb.append(HEX_CHARS.charAt((b & 0xF)));		
+		final char[] out = new char[bytes.length * 2];
+		encode(bytes, 0, bytes.length, out, 0);
+		return new String(out);
+	}
+
+	/**
+	 * Encodes a byte range into a char array.
+	 * @param bytes source bytes
+	 * @param offset source offset
+	 * @param length number of bytes to encode
+	 * @param dst target chars, needs {@code 2 * length} chars from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of chars written
+	 */
+	public static int encode(byte[] bytes, int offset, int length, char[] dst, int dstOffset) {
+		checkRange(bytes, offset, length, "bytes");
+		checkRange(dst, dstOffset, length * 2, "dst");
+		int j = dstOffset;
+		for(int i = offset, end = offset + length; i < end; i++) {
+			final int b = bytes[i] & 0xFF;
+			dst[j++] = HIGH[b];
+			dst[j++] = LOW[b];
+		}
+		return length * 2;
+	}
+
+	/**
+	 * Encodes a byte range into ASCII bytes.
+	 * @param bytes source bytes
+	 * @param offset source offset
+	 * @param length number of bytes to encode
+	 * @param dst target bytes, needs {@code 2 * length} bytes from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of bytes written
+	 */
+	public static int encode(byte[] bytes, int offset, int length, byte[] dst, int dstOffset) {
+		checkRange(bytes, offset, length, "bytes");
+		checkRange(dst, dstOffset, length * 2, "dst");
+		int j = dstOffset;
+		for(int i = offset, end = offset + length; i < end; i++) {
+			final int b = bytes[i] & 0xFF;
+			dst[j++] = (byte) HIGH[b];
+			dst[j++] = (byte) LOW[b];
+		}
+		return length * 2;
+	}
+
+	/**
+	 * Encodes a byte range as ASCII into a buffer, advancing its position.
+	 * @param bytes source bytes
+	 * @param offset source offset
+	 * @param length number of bytes to encode
+	 * @param dst target buffer, needs {@code 2 * length} bytes remaining
+	 * @return Number of bytes written
+	 */
+	public static int encode(byte[] bytes, int offset, int length, ByteBuffer dst) {
+		checkRange(bytes, offset, length, "bytes");
+		if(dst == null) {
+			throw new NullPointerException("dst");
+		}
+		if(dst.remaining() < length * 2) {
+			throw new java.nio.BufferOverflowException();
+		}
+		if(dst.hasArray()) {
+			final int n = encode(bytes, offset, length, dst.array(), dst.arrayOffset() + dst.position());
+			dst.position(dst.position() + n);
+			return n;
 		}
-		return sb.toString();
+		for(int i = offset, end = offset + length; i < end; i++) {
+			final int b = bytes[i] & 0xFF;
+			dst.put((byte) HIGH[b]);
+			dst.put((byte) LOW[b]);
+		}
+		return length * 2;
 	}
-	
+
+	/**
+	 * Encodes a byte range into an {@link Appendable}.
+	 * @param bytes source bytes
+	 * @param offset source offset
+	 * @param length number of bytes to encode
+	 * @param dst target
+	 * @return {@code dst}
+	 * @throws IOException If {@code dst} fails to append.
+	 */
+	public static <A extends Appendable> A encode(byte[] bytes, int offset, int length, A dst) throws IOException {
+		checkRange(bytes, offset, length, "bytes");
+		if(dst == null) {
+			throw new NullPointerException("dst");
+		}
+		if(dst instanceof StringBuilder) {
+			((StringBuilder) dst).ensureCapacity(((StringBuilder) dst).length() + length * 2);
+		}
+		for(int i = offset, end = offset + length; i < end; i++) {
+			final int b = bytes[i] & 0xFF;
+			dst.append(HIGH[b]).append(LOW[b]);
+		}
+		return dst;
+	}
+
 	/**
 	 * Custom for JDK1.0+ java versions
 	 * @param hexString Hex String
@@ -37,23 +164,137 @@ public final class HexEncodingDecoding {
 		if( hexString == null) {
 			throw new NullPointerException("hexBinary");
 		}
-		hexString = hexString.toLowerCase();
 		final int len = hexString.length();
-        if (len % 2 != 0) {
-            throw new IllegalArgumentException("hexBinary needs to be even-length: " + hexString);
-        }
+		if (len % 2 != 0) {
+			throw new IllegalArgumentException("hexBinary needs to be even-length: " + hexString);
+		}
 		byte[] out = new byte[len / 2];
-		
-		for(int i = 0; i < len; i += 2) {			
-			int h = HEX_CHARS.indexOf(hexString.charAt(i));
-			int l = HEX_CHARS.indexOf(hexString.charAt(i+1));
-			if (h == -1 || l == -1) {
-                throw new IllegalArgumentException("contains illegal character for hexBinary: " + hexString);
-            }
-			out[i/2] = (byte) (h * 16 + l);
-		}
-		
-		return out;		
-	}
-	
+		decode(hexString, 0, len, out, 0);
+		return out;
+	}
+
+	/**
+	 * Decodes a char range.
+	 * @param hex hex chars
+	 * @param start start index, inclusive
+	 * @param end end index, exclusive
+	 * @return Decoded bytes
+	 */
+	public static byte[] decode(CharSequence hex, int start, int end) {
+		checkChars(hex, start, end);
+		byte[] out = new byte[(end - start) / 2];
+		decode(hex, start, end, out, 0);
+		return out;
+	}
+
+	/**
+	 * Decodes a char range into a byte array.
+	 * @param hex hex chars
+	 * @param start start index, inclusive
+	 * @param end end index, exclusive
+	 * @param dst target bytes, needs {@code (end - start) / 2} bytes from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of bytes written
+	 */
+	public static int decode(CharSequence hex, int start, int end, byte[] dst, int dstOffset) {
+		checkChars(hex, start, end);
+		final int n = (end - start) / 2;
+		checkRange(dst, dstOffset, n, "dst");
+		int j = dstOffset;
+		for(int i = start; i < end; i += 2) {
+			dst[j++] = (byte) ((nibble(hex.charAt(i), i) << 4) | nibble(hex.charAt(i + 1), i + 1));
+		}
+		return n;
+	}
+
+	/**
+	 * Decodes an ASCII byte range into a byte array. {@code dst} may be {@code hex}
+	 * itself with {@code dstOffset <= offset}.
+	 * @param hex ASCII hex digits
+	 * @param offset source offset
+	 * @param length number of ASCII digits, must be even
+	 * @param dst target bytes, needs {@code length / 2} bytes from {@code dstOffset}
+	 * @param dstOffset target offset
+	 * @return Number of bytes written
+	 */
+	public static int decode(byte[] hex, int offset, int length, byte[] dst, int dstOffset) {
+		checkRange(hex, offset, length, "hex");
+		if (length % 2 != 0) {
+			throw new IllegalArgumentException("hexBinary needs to be even-length: " + length);
+		}
+		final int n = length / 2;
+		checkRange(dst, dstOffset, n, "dst");
+		int j = dstOffset;
+		for(int i = offset, end = offset + length; i < end; i += 2) {
+			dst[j++] = (byte) ((nibble((char) (hex[i] & 0xFF), i - offset) << 4) | nibble((char) (hex[i + 1] & 0xFF), i + 1 - offset));
+		}
+		return n;
+	}
+
+	/**
+	 * Nibble value of a hex digit.
+	 * @param c hex digit, either case
+	 * @return nibble value, {@code -1} if {@code c} is not a hex digit
+	 */
+	static int digit(char c) {
+		return (c < 128) ? NIBBLES[c] : -1;
+	}
+
+	/**
+	 * Hex digits of a byte value.
+	 * @param b byte value, 0-255
+	 * @return high digit
+	 */
+	static char high(int b) {
+		return HIGH[b];
+	}
+
+	/**
+	 * @param b byte value, 0-255
+	 * @return low digit
+	 */
+	static char low(int b) {
+		return LOW[b];
+	}
+
+	private static int nibble(char c, int index) {
+		final int v = digit(c);
+		if (v < 0) {
+			throw new IllegalArgumentException("contains illegal character for hexBinary at " + index + ": " + c);
+		}
+		return v;
+	}
+
+	private static void checkChars(CharSequence hex, int start, int end) {
+		if(hex == null) {
+			throw new NullPointerException("hexBinary");
+		}
+		if(start < 0 || end > hex.length() || start > end) {
+			throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + hex.length());
+		}
+		if ((end - start) % 2 != 0) {
+			throw new IllegalArgumentException("hexBinary needs to be even-length: " + (end - start));
+		}
+	}
+
+	private static void checkRange(char[] array, int offset, int length, String name) {
+		if(array == null) {
+			throw new NullPointerException(name);
+		}
+		checkRange(array.length, offset, length, name);
+	}
+
+	private static void checkRange(byte[] array, int offset, int length, String name) {
+		if(array == null) {
+			throw new NullPointerException(name);
+		}
+		checkRange(array.length, offset, length, name);
+	}
+
+	private static void checkRange(int arrayLength, int offset, int length, String name) {
+		if(offset < 0 || length < 0 || offset > arrayLength - length) {
+			throw new IndexOutOfBoundsException(name + " offset: " + offset + ", length: " + length + ", size: " + arrayLength);
+		}
+	}
+
 }
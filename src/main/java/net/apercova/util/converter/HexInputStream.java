@@ -0,0 +1,129 @@
+package net.apercova.util.converter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Input stream that incrementally decodes hex text read from a {@link Reader}.
+ * <p>
+ * Memory use is constant. Digits may be in either case and whitespace between
+ * them (e.g. line wrapping from {@link HexOutputStream}) is skipped. A byte
+ * whose two digits are split across reads of the underlying reader is
+ * reassembled. Channels can be read through
+ * {@link java.nio.channels.Channels#newReader(java.nio.channels.ReadableByteChannel, String)}.
+ * </p>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public class HexInputStream extends InputStream {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Reader in;
+	private final char[] buf = new char[DEFAULT_BUFFER_SIZE];
+	private int pos;
+	private int limit;
+	private long offset;
+	private int high = -1;
+	private boolean eof;
+	private boolean closed;
+
+	/**
+	 * @param in hex text
+	 */
+	public HexInputStream(Reader in) {
+		if(in == null) {
+			throw new NullPointerException("in");
+		}
+		this.in = in;
+	}
+
+	/**
+	 * @param in ASCII hex text
+	 */
+	public HexInputStream(InputStream in) {
+		this(new InputStreamReader(in, StandardCharsets.US_ASCII));
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] b = new byte[1];
+		return (read(b, 0, 1) == -1) ? -1 : (b[0] & 0xFF);
+	}
+
+	/**
+	 * Decodes at least one byte, blocking only while no byte is available.
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if(b == null) {
+			throw new NullPointerException("b");
+		}
+		if(off < 0 || len < 0 || off > b.length - len) {
+			throw new IndexOutOfBoundsException();
+		}
+		if(closed) {
+			throw new IOException("Stream closed");
+		}
+		if(len == 0) {
+			return 0;
+		}
+		int n = 0;
+		while(n < len) {
+			if(pos == limit) {
+				if(n > 0 || !fill()) {
+					break;
+				}
+			}
+			final char c = buf[pos++];
+			final int v = HexEncodingDecoding.digit(c);
+			if(v < 0) {
+				if(!Character.isWhitespace(c)) {
+					throw new IOException("contains illegal character for hexBinary at " + (offset + pos - 1) + ": " + c);
+				}
+				continue;
+			}
+			if(high < 0) {
+				high = v;
+			} else {
+				b[off + n++] = (byte) ((high << 4) | v);
+				high = -1;
+			}
+		}
+		return (n == 0) ? -1 : n;
+	}
+
+	/**
+	 * Reads the next block of chars.
+	 * @return {@code false} at end of input
+	 * @throws IOException If the input ends on an odd hex digit.
+	 */
+	private boolean fill() throws IOException {
+		if(eof) {
+			return false;
+		}
+		offset += limit;
+		pos = 0;
+		limit = 0;
+		final int r = in.read(buf, 0, buf.length);
+		if(r < 0) {
+			eof = true;
+			if(high >= 0) {
+				throw new IOException("hexBinary needs to be even-length: " + offset);
+			}
+			return false;
+		}
+		limit = r;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		in.close();
+	}
+}
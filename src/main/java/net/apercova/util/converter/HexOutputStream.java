@@ -0,0 +1,174 @@
+package net.apercova.util.converter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output stream that hex-encodes written bytes on the fly into a {@link Writer}.
+ * <p>
+ * Memory use is constant: encoded chars are buffered in a fixed-size block and
+ * written to the target as it fills. Output can optionally be wrapped into
+ * lines of a fixed number of hex digits. Channels can be targeted through
+ * {@link java.nio.channels.Channels#newWriter(java.nio.channels.WritableByteChannel, String)}.
+ * </p>
+ * <pre>
+ * {@code
+ *  try(OutputStream hex = new HexOutputStream(writer, 64)) {
+ *      Files.copy(path, hex);
+ *  }
+ * }
+ * </pre>
+ * @author <a href="https://twitter.com/apercova" target="_blank">{@literal @}apercova</a> <a href="https://github.com/apercova" target="_blank">https://github.com/apercova</a>
+ * @version 1.0 2026.10
+ *
+ */
+public class HexOutputStream extends OutputStream {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Writer out;
+	private final char[] buf = new char[DEFAULT_BUFFER_SIZE];
+	private final int lineLength;
+	private final String lineSeparator;
+	private int count;
+	private int column;
+	private boolean closed;
+
+	/**
+	 * Hex-encodes into a writer without line wrapping.
+	 * @param out target writer
+	 */
+	public HexOutputStream(Writer out) {
+		this(out, 0, null);
+	}
+
+	/**
+	 * Hex-encodes into a writer, wrapping lines with the platform line separator.
+	 * @param out target writer
+	 * @param lineLength hex digits per line, even; {@code 0} for no wrapping
+	 */
+	public HexOutputStream(Writer out, int lineLength) {
+		this(out, lineLength, System.lineSeparator());
+	}
+
+	/**
+	 * Hex-encodes into a writer.
+	 * @param out target writer
+	 * @param lineLength hex digits per line, even; {@code 0} for no wrapping
+	 * @param lineSeparator line separator, required if {@code lineLength > 0}
+	 */
+	public HexOutputStream(Writer out, int lineLength, String lineSeparator) {
+		if(out == null) {
+			throw new NullPointerException("out");
+		}
+		if(lineLength < 0 || lineLength % 2 != 0) {
+			throw new IllegalArgumentException("lineLength: " + lineLength);
+		}
+		if(lineLength > 0 && lineSeparator == null) {
+			throw new NullPointerException("lineSeparator");
+		}
+		this.out = out;
+		this.lineLength = lineLength;
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * Hex-encodes as ASCII into an output stream.
+	 * @param out target stream
+	 * @param lineLength hex digits per line, even; {@code 0} for no wrapping
+	 */
+	public HexOutputStream(OutputStream out, int lineLength) {
+		this(new OutputStreamWriter(out, StandardCharsets.US_ASCII), lineLength);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		if(count + 2 > buf.length) {
+			flushBuffer();
+		}
+		b &= 0xFF;
+		buf[count++] = HexEncodingDecoding.high(b);
+		buf[count++] = HexEncodingDecoding.low(b);
+		if(lineLength > 0 && (column += 2) == lineLength) {
+			newLine();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if(b == null) {
+			throw new NullPointerException("b");
+		}
+		if(off < 0 || len < 0 || off > b.length - len) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensureOpen();
+		while(len > 0) {
+			int n = Math.min(len, (buf.length - count) / 2);
+			if(lineLength > 0) {
+				n = Math.min(n, (lineLength - column) / 2);
+			}
+			if(n == 0) {
+				flushBuffer();
+				continue;
+			}
+			count += HexEncodingDecoding.encode(b, off, n, buf, count);
+			off += n;
+			len -= n;
+			if(lineLength > 0 && (column += n * 2) == lineLength) {
+				newLine();
+			}
+		}
+	}
+
+	private void newLine() throws IOException {
+		flushBuffer();
+		out.write(lineSeparator);
+		column = 0;
+	}
+
+	private void flushBuffer() throws IOException {
+		if(count > 0) {
+			out.write(buf, 0, count);
+			count = 0;
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if(closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		flushBuffer();
+		out.flush();
+	}
+
+	/**
+	 * Writes pending hex digits, terminates the last line when wrapping and
+	 * closes the target writer.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(closed) {
+			return;
+		}
+		try {
+			flushBuffer();
+			if(lineLength > 0 && column > 0) {
+				newLine();
+			}
+			out.flush();
+		} finally {
+			closed = true;
+			out.close();
+		}
+	}
+}